@@ -7,7 +7,10 @@ import example.users.validation.Adult;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Past;
+import jakarta.validation.constraints.Size;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.Email;
 
 public class User {
@@ -16,15 +19,18 @@ public class User {
 
     @NotNull(message = "Name cannot be null")
     @NotBlank(message = "Name cannot be blank")
+    @Size(max = 20, message = "Name cannot be longer than 20 characters")
     private String name;
 
     @NotNull(message = "Last name cannot be null")
     @NotBlank(message = "Last name cannot be blank")
+    @Size(max = 20, message = "Last name cannot be longer than 20 characters")
     private String lastName;
 
     @Email(message = "Email should be valid")
     @NotNull(message = "Email cannot be null")
     @NotBlank(message = "Email cannot be blank")
+    @Size(max = 50, message = "Email cannot be longer than 50 characters")
     private String email;
 
     @NotNull(message = "Birthday cannot be null")
@@ -32,12 +38,17 @@ public class User {
     @Adult
     private LocalDate birthday;
 
+    @Size(max = 15, message = "Phone number cannot be longer than 15 characters")
     private String phoneNumber;
 
+    @Size(max = 50, message = "Address cannot be longer than 50 characters")
     private String address;
 
     private String owner;
 
+    @Version
+    @JsonIgnore
+    private Long version;
 
     public User() {
     }
@@ -95,6 +106,10 @@ public class User {
         return owner;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public void setName(String name) {
         this.name = name;
     }
@@ -127,6 +142,10 @@ public class User {
         this.owner = owner;
     }
 
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
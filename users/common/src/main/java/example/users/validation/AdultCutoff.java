@@ -0,0 +1,55 @@
+package example.users.validation;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * The latest birthday of an adult: today minus {@code user.age} years. It is computed once per day of the clock
+ * and reused until the next midnight, so a check costs one clock read and a date comparison.
+ * Queries can push an adults-only filter into SQL as {@code BIRTHDAY <= :latestBirthday}.
+ */
+@Component
+public class AdultCutoff {
+
+    private record Cutoff(LocalDate latestBirthday, long validFrom, long validUntil) {
+    }
+
+    private final Clock clock;
+
+    private final int age;
+
+    private volatile Cutoff cutoff;
+
+    public AdultCutoff(AgeHelper ageHelper, Clock clock) {
+        this.clock = clock;
+        this.age = ageHelper.getAge();
+        this.cutoff = compute();
+    }
+
+    /**
+     * @return the latest birthday, today, of someone who is at least {@code user.age} years old
+     */
+    public LocalDate latestBirthday() {
+        Cutoff current = cutoff;
+        long now = clock.millis();
+        if (now < current.validFrom() || now >= current.validUntil()) {
+            current = compute();
+            cutoff = current;
+        }
+        return current.latestBirthday();
+    }
+
+    public boolean isAdult(LocalDate birthday) {
+        return !birthday.isAfter(latestBirthday());
+    }
+
+    private Cutoff compute() {
+        LocalDate today = LocalDate.now(clock);
+        return new Cutoff(
+            today.minusYears(age),
+            today.atStartOfDay(clock.getZone()).toInstant().toEpochMilli(),
+            today.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli());
+    }
+}
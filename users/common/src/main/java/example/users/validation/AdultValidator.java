@@ -4,14 +4,14 @@ import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
 import java.time.LocalDate;
-import java.time.Period;
-
-import org.springframework.beans.factory.annotation.Autowired;
 
 public class AdultValidator implements ConstraintValidator<Adult, LocalDate> {
 
-    @Autowired
-    private AgeHelper ageHelper;
+    private final AdultCutoff adultCutoff;
+
+    public AdultValidator(AdultCutoff adultCutoff) {
+        this.adultCutoff = adultCutoff;
+    }
 
     @Override
     public void initialize(Adult constraintAnnotation) {
@@ -19,7 +19,7 @@ public class AdultValidator implements ConstraintValidator<Adult, LocalDate> {
 
     @Override
     public boolean isValid(LocalDate birthday, ConstraintValidatorContext constraintValidatorContext) {
-        return birthday != null && Period.between(birthday, LocalDate.now()).getYears() >= ageHelper.getAge();
+        return birthday != null && adultCutoff.isAdult(birthday);
     }
 
 }
@@ -0,0 +1,34 @@
+-- Creates the in-memory database of both applications. The servlet application's file profile migrates its schema with its db/migration instead: every change here needs a migration there too.
+CREATE TABLE "USER" (
+  ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  NAME VARCHAR(20) NOT NULL,
+  LAST_NAME VARCHAR(20) NOT NULL,
+  EMAIL VARCHAR(50) NOT NULL,
+  BIRTHDAY DATE NOT NULL,
+  PHONE_NUMBER VARCHAR(15),
+  ADDRESS VARCHAR(50),
+  OWNER VARCHAR(256) NOT NULL,
+  VERSION BIGINT DEFAULT 0 NOT NULL,
+  NAME_LC VARCHAR(20) GENERATED ALWAYS AS (LOWER(NAME)),
+  LAST_NAME_LC VARCHAR(20) GENERATED ALWAYS AS (LOWER(LAST_NAME)),
+  EMAIL_LC VARCHAR(50) GENERATED ALWAYS AS (LOWER(EMAIL)),
+  BIRTHDAY_DOY INT GENERATED ALWAYS AS (EXTRACT(MONTH FROM BIRTHDAY) * 100 + EXTRACT(DAY FROM BIRTHDAY))
+);
+
+-- Every repository query is scoped by OWNER; these back the owner-scoped access paths.
+CREATE INDEX USER_OWNER_NAME_IDX ON "USER" (OWNER, NAME);
+CREATE INDEX USER_OWNER_BIRTHDAY_IDX ON "USER" (OWNER, BIRTHDAY);
+CREATE INDEX USER_OWNER_ID_IDX ON "USER" (OWNER, ID);
+-- GET /users/birthdays matches month and day across all years of birth.
+CREATE INDEX USER_OWNER_BIRTHDAY_DOY_IDX ON "USER" (OWNER, BIRTHDAY_DOY);
+
+-- GET /users/search matches case-insensitive prefixes as range scans over the lowercased columns.
+CREATE INDEX USER_OWNER_NAME_LC_IDX ON "USER" (OWNER, NAME_LC);
+CREATE INDEX USER_OWNER_LAST_NAME_LC_IDX ON "USER" (OWNER, LAST_NAME_LC);
+CREATE INDEX USER_OWNER_EMAIL_LC_IDX ON "USER" (OWNER, EMAIL_LC);
+
+-- Sharding: an owner whose users were copied to this shard by a move that has not deleted them from the source yet.
+CREATE TABLE SHARD_MOVE (
+  OWNER VARCHAR(256) PRIMARY KEY,
+  SOURCE_SHARD INT NOT NULL
+);
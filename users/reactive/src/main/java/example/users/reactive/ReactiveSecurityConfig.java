@@ -0,0 +1,62 @@
+package example.users.reactive;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+
+/**
+ * The access rules and test owners of the servlet application's SecurityConfig, with HTTP Basic.
+ */
+@Configuration
+@EnableWebFluxSecurity
+class ReactiveSecurityConfig {
+
+    @Bean
+    SecurityWebFilterChain filterChain(ServerHttpSecurity http) {
+        return http
+            .authorizeExchange(exchange -> exchange
+                .pathMatchers("/users/**").hasRole("USER-OWNER")
+                .pathMatchers("/actuator/health").permitAll()
+                .pathMatchers("/actuator/**").hasRole("OPS")
+                .anyExchange().authenticated())
+            .httpBasic(Customizer.withDefaults())
+            .csrf(csrf -> csrf.disable())
+            .build();
+    }
+
+    @Bean
+    PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    @Bean
+    MapReactiveUserDetailsService testOnlyUsers(PasswordEncoder passwordEncoder) {
+        User.UserBuilder users = User.builder();
+        UserDetails admin = users
+            .username("admin")
+            .password(passwordEncoder.encode("abc123"))
+            .roles("USER-OWNER", "OPS") // OPS: the actuator endpoints other than health
+            .build();
+
+        UserDetails darioOwnsNoUsers = users
+            .username("dario")
+            .password(passwordEncoder.encode("abc123"))
+            .roles("NON-OWNER")
+            .build();
+
+        UserDetails paris = users
+            .username("paris")
+            .password(passwordEncoder.encode("abc123"))
+            .roles("USER-OWNER")
+            .build();
+        return new MapReactiveUserDetailsService(admin, darioOwnsNoUsers, paris);
+    }
+}
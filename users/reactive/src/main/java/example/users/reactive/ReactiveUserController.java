@@ -0,0 +1,153 @@
+package example.users.reactive;
+
+import java.net.URI;
+import java.security.Principal;
+import java.time.LocalDate;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import example.exceptions.WrongDateParametersException;
+import example.users.User;
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/users")
+class ReactiveUserController {
+
+    private final ReactiveUserRepository userRepository;
+
+    ReactiveUserController(ReactiveUserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+/**
+ * Retrieves a user by their ID.
+ *
+ * @param requestedId the ID of the user to retrieve
+ * @param principal the principal object representing the currently authenticated user
+ * @return a Mono of a ResponseEntity containing the user if found, or a not found response if not found
+ */
+   @GetMapping("/{requestedId}")
+   private Mono<ResponseEntity<User>> findById(@PathVariable Long requestedId, Principal principal) {
+        return userRepository.findByIdAndOwner(requestedId, principal.getName())
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+   }
+
+    /**
+     * Retrieves a page of users owned by the authenticated principal, sorted by name unless a sort is given.
+     * Users are written as they are read, at the pace the client consumes them.
+     *
+     * @param pageable   the pagination parameters for retrieving the users
+     * @param principal  the authenticated principal representing the user
+     * @return           a Flux of the users, rendered as a JSON array or as newline-delimited JSON
+     */
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    private Flux<User> findAll(Pageable pageable, Principal principal) {
+        PageRequest pageRequest = PageRequest.of(
+            pageable.getPageNumber(),
+            pageable.getPageSize(),
+            pageable.getSortOr(Sort.by(Sort.Direction.ASC, "name"))
+        );
+        return userRepository.findByOwner(principal.getName(), pageRequest);
+    }
+
+    /**
+     * Retrieves the users owned by the authenticated principal between the specified start and end dates,
+     * ordered by birthday and ID. Users are written as they are read, at the pace the client consumes them,
+     * so the range is not bounded; an empty range is an empty array rather than a not found response.
+     *
+     * @param startDate the start date of the range
+     * @param endDate the end date of the range
+     * @param principal the authenticated principal
+     * @return a Flux of the users, rendered as a JSON array or as newline-delimited JSON
+     * @throws WrongDateParametersException if the end date is before the start date
+     */
+    @GetMapping(value = "/{startDate}/{endDate}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    private Flux<User> findByOwnerAndBetweenDates(@PathVariable LocalDate startDate, @PathVariable LocalDate endDate, Principal principal) {
+        if (endDate.isBefore(startDate)) {
+            throw new WrongDateParametersException("endDate must be after startDate");
+        }
+        return userRepository.findByOwnerAndBetweenDates(principal.getName(), startDate, endDate);
+    }
+
+/**
+ * Creates a new user.
+ *
+ * @param newUser The User object containing the details of the new user.
+ * @param ucb The UriComponentsBuilder used to build the URI for the new user.
+ * @param principal The Principal object representing the currently authenticated user.
+ * @return A Mono of a ResponseEntity with a status code of 201 (Created) and the URI of the new user in the Location header.
+ */
+   @PostMapping
+   private Mono<ResponseEntity<Void>> createUser(@Valid @RequestBody User newUser, UriComponentsBuilder ucb, Principal principal) {
+        User userWithOwner = new User(null, newUser.getName(), newUser.getLastName(), newUser.getEmail(), newUser.getBirthday(), newUser.getPhoneNumber(), newUser.getAddress(), principal.getName());
+
+        return userRepository.save(userWithOwner)
+            .map(savedUser -> {
+                URI locationOfNewUser = ucb
+                    .path("/users/{id}")
+                    .buildAndExpand(savedUser.getId())
+                    .toUri();
+                return ResponseEntity.created(locationOfNewUser).<Void>build();
+            });
+   }
+
+/**
+ * Updates a user with the provided information.
+ *
+ * @param requestedId   The ID of the user to be updated.
+ * @param updatedUser   The updated user object containing the new information.
+ * @param principal     The principal object representing the currently authenticated user.
+ * @return              A Mono of a ResponseEntity with no content if the user was successfully updated,
+ *                      or with a not found status if the user was not found.
+ */
+   @PutMapping("/{requestedId}")
+   private Mono<ResponseEntity<Void>> updateUser(@PathVariable Long requestedId, @RequestBody User updatedUser, Principal principal) {
+        return userRepository.updateByIdAndOwner(
+                requestedId,
+                principal.getName(),
+                updatedUser.getName(),
+                updatedUser.getLastName(),
+                updatedUser.getEmail(),
+                updatedUser.getBirthday(),
+                updatedUser.getPhoneNumber(),
+                updatedUser.getAddress()
+            )
+            .map(updated -> updated > 0
+                ? ResponseEntity.noContent().<Void>build()
+                : ResponseEntity.notFound().<Void>build());
+   }
+
+/**
+ * Deletes a user with the specified ID.
+ *
+ * @param requestedId The ID of the user to delete.
+ * @param principal The principal object representing the currently authenticated user.
+ * @return A Mono of a ResponseEntity with no content if the user was successfully deleted,
+ *         or with not found status if the user does not exist or the authenticated user is not the owner.
+ */
+   @DeleteMapping("/{requestedId}")
+   private Mono<ResponseEntity<Void>> deleteUser(@PathVariable Long requestedId, Principal principal) {
+        return userRepository.deleteByIdAndOwner(requestedId, principal.getName())
+            .map(deleted -> deleted > 0
+                ? ResponseEntity.noContent().<Void>build()
+                : ResponseEntity.notFound().<Void>build());
+   }
+
+}
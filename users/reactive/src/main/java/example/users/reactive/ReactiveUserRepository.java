@@ -0,0 +1,32 @@
+package example.users.reactive;
+
+import java.time.LocalDate;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+
+import example.users.User;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+interface ReactiveUserRepository extends R2dbcRepository<User, Long> {
+
+    Mono<User> findByIdAndOwner(Long id, String owner);
+
+    Flux<User> findByOwner(String owner, Pageable pageable);
+
+    @Query("SELECT * FROM \"USER\" WHERE birthday BETWEEN :startDate AND :endDate AND owner = :owner ORDER BY birthday, id")
+    Flux<User> findByOwnerAndBetweenDates(@Param("owner") String owner, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query("UPDATE \"USER\" SET name = :name, last_name = :lastName, email = :email, birthday = :birthday, phone_number = :phoneNumber, address = :address, version = version + 1 WHERE id = :id AND owner = :owner")
+    Mono<Integer> updateByIdAndOwner(@Param("id") Long id, @Param("owner") String owner, @Param("name") String name, @Param("lastName") String lastName, @Param("email") String email, @Param("birthday") LocalDate birthday, @Param("phoneNumber") String phoneNumber, @Param("address") String address);
+
+    @Modifying
+    @Query("DELETE FROM \"USER\" WHERE id = :id AND owner = :owner")
+    Mono<Integer> deleteByIdAndOwner(@Param("id") Long id, @Param("owner") String owner);
+
+}
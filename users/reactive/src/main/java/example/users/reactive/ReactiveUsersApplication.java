@@ -0,0 +1,44 @@
+package example.users.reactive;
+
+import java.time.Clock;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+
+import example.users.validation.AdultCutoff;
+import example.users.validation.AgeHelper;
+
+/**
+ * The users API on WebFlux and R2DBC. It serves the same endpoints as the servlet application
+ * and validates users with the same constraints, including {@code @Adult}.
+ */
+@SpringBootApplication
+@Import({ AgeHelper.class, AdultCutoff.class })
+public class ReactiveUsersApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveUsersApplication.class, args);
+	}
+
+	@Bean
+	Clock clock() {
+		return Clock.systemDefaultZone();
+	}
+
+	/**
+	 * Quotes table and column names, as Spring Data JDBC does in the servlet application: USER is a keyword in H2,
+	 * and derived queries qualify every column with the table name.
+	 */
+	@Bean
+	R2dbcMappingContext r2dbcMappingContext(R2dbcCustomConversions r2dbcCustomConversions) {
+		R2dbcMappingContext mappingContext = new R2dbcMappingContext();
+		mappingContext.setForceQuote(true);
+		mappingContext.setSimpleTypeHolder(r2dbcCustomConversions.getSimpleTypeHolder());
+		return mappingContext;
+	}
+
+}
@@ -0,0 +1,22 @@
+package example.users.reactive;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+@Configuration
+class ReactiveWebConfig implements WebFluxConfigurer {
+
+    /**
+     * The largest page GET /users returns, as in the servlet application.
+     */
+    static final int MAX_PAGE_SIZE = 1000;
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        ReactivePageableHandlerMethodArgumentResolver pageableResolver = new ReactivePageableHandlerMethodArgumentResolver();
+        pageableResolver.setMaxPageSize(MAX_PAGE_SIZE);
+        configurer.addCustomResolver(pageableResolver);
+    }
+}
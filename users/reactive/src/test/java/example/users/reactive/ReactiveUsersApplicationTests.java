@@ -0,0 +1,109 @@
+package example.users.reactive;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import example.users.User;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReactiveUsersApplicationTests {
+
+	@Autowired
+	WebTestClient webTestClient;
+
+	@Test
+	void shouldCreateAndReturnAUser() {
+		User newUser = new User(null, "alex", "brown", "alex.brown@email.com", LocalDate.parse("1988-09-15"), "555555555", "789 Oak St", null);
+		String location = webTestClient.post().uri("/users")
+			.headers(headers -> headers.setBasicAuth("admin", "abc123"))
+			.bodyValue(newUser)
+			.exchange()
+			.expectStatus().isCreated()
+			.returnResult(Void.class)
+			.getResponseHeaders().getLocation().getPath();
+
+		webTestClient.get().uri(location)
+			.headers(headers -> headers.setBasicAuth("admin", "abc123"))
+			.exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("$.name").isEqualTo("alex")
+			.jsonPath("$.owner").isEqualTo("admin");
+
+		webTestClient.get().uri(location)
+			.headers(headers -> headers.setBasicAuth("paris", "abc123"))
+			.exchange()
+			.expectStatus().isNotFound();
+	}
+
+	@Test
+	void shouldNotCreateAMinor() {
+		User minor = new User(null, "alex", "brown", "alex.brown@email.com", LocalDate.now().minusYears(10), "555555555", "789 Oak St", null);
+		webTestClient.post().uri("/users")
+			.headers(headers -> headers.setBasicAuth("admin", "abc123"))
+			.bodyValue(minor)
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectBody()
+			.jsonPath("$.birthday").isEqualTo("Must be at least 18 years old");
+	}
+
+	@Test
+	void shouldStreamUsersBetweenDates() {
+		User newUser = new User(null, "sarah", "johnson", "sarah.johnson@email.com", LocalDate.parse("1992-03-25"), "111111111", "321 Pine St", null);
+		webTestClient.post().uri("/users")
+			.headers(headers -> headers.setBasicAuth("paris", "abc123"))
+			.bodyValue(newUser)
+			.exchange()
+			.expectStatus().isCreated();
+
+		webTestClient.get().uri("/users/1990-01-01/2000-01-01")
+			.headers(headers -> headers.setBasicAuth("paris", "abc123"))
+			.accept(MediaType.APPLICATION_NDJSON)
+			.exchange()
+			.expectStatus().isOk()
+			.expectBodyList(User.class)
+			.value(users -> assertThat(users).extracting(User::getName).containsExactly("sarah"));
+	}
+
+	@Test
+	void shouldReturnBadRequestWhenEndDateIsBeforeStartDate() {
+		webTestClient.get().uri("/users/2000-01-01/1990-01-01")
+			.headers(headers -> headers.setBasicAuth("admin", "abc123"))
+			.exchange()
+			.expectStatus().isBadRequest();
+	}
+
+	@Test
+	void shouldReturnForbiddenWhenUserIsNotAuthorized() {
+		webTestClient.get().uri("/users")
+			.headers(headers -> headers.setBasicAuth("dario", "abc123"))
+			.exchange()
+			.expectStatus().isForbidden();
+	}
+
+	@Test
+	void shouldOnlyExposeMetricsToOperators() {
+		for (String user : new String[] { "dario", "paris" }) {
+			webTestClient.get().uri("/actuator/metrics")
+				.headers(headers -> headers.setBasicAuth(user, "abc123"))
+				.exchange()
+				.expectStatus().isForbidden();
+		}
+		webTestClient.get().uri("/actuator/metrics")
+			.headers(headers -> headers.setBasicAuth("admin", "abc123"))
+			.exchange()
+			.expectStatus().isOk();
+		webTestClient.get().uri("/actuator/health")
+			.exchange()
+			.expectStatus().isOk();
+	}
+
+}
@@ -0,0 +1,83 @@
+package example.users;
+
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Starts the application for benchmarks and fills its in-memory database with synthetic users.
+ */
+final class BenchmarkApplication {
+
+    /**
+     * The owner the benchmarks read as. It is one of the users defined in {@link SecurityConfig}.
+     */
+    static final String OWNER = "admin";
+
+    /**
+     * The number of owners the seeded rows are spread across by default, so each owner has rows / OWNERS users.
+     */
+    static final int OWNERS = 100;
+
+    private static final String SEED = """
+        INSERT INTO "USER" (NAME, LAST_NAME, EMAIL, BIRTHDAY, PHONE_NUMBER, ADDRESS, OWNER)
+        SELECT 'name' || MOD(X * 7, 997), 'last' || MOD(X * 13, 991), 'user' || X || '@email.com',
+               DATEADD('DAY', -(6575 + MOD(X * 7919, 23725)), CURRENT_DATE), '555' || MOD(X, 1000000),
+               X || ' Main St', CASE WHEN MOD(X, ?) = 0 THEN ? ELSE 'owner' || MOD(X, ?) END
+        FROM SYSTEM_RANGE(1, ?)
+        """;
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Starts the application on a random port with its own in-memory database.
+     *
+     * @param properties extra properties, in key=value form
+     * @return the running application context
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(UsersApplication.class)
+            .web(WebApplicationType.SERVLET)
+            .properties(
+                "server.port=0",
+                "spring.datasource.generate-unique-name=true",
+                "user.schema.plan-check=off",
+                "logging.level.root=warn")
+            .properties(properties)
+            .run();
+    }
+
+    /**
+     * Inserts the given number of users in one statement, spread across {@value #OWNERS} owners. Birthdays are spread
+     * evenly between 18 and 83 years ago.
+     *
+     * @param context the running application context
+     * @param rows the number of users to insert
+     * @return the IDs of the users owned by {@link #OWNER}
+     */
+    static long[] seed(ConfigurableApplicationContext context, int rows) {
+        return seed(context, rows, OWNERS);
+    }
+
+    /**
+     * Inserts the given number of users in one statement, spread across the given number of owners.
+     *
+     * @param context the running application context
+     * @param rows the number of users to insert
+     * @param owners the number of owners, {@link #OWNER} among them; with one, every user is {@link #OWNER}'s
+     * @return the IDs of the users owned by {@link #OWNER}
+     */
+    static long[] seed(ConfigurableApplicationContext context, int rows, int owners) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update(SEED, owners, OWNER, owners, rows);
+        jdbcTemplate.execute("ANALYZE");
+
+        List<Long> ids = jdbcTemplate.queryForList("SELECT ID FROM \"USER\" WHERE OWNER = ? ORDER BY ID", Long.class, OWNER);
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+}
@@ -0,0 +1,114 @@
+package example.users;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * The full request path of {@link UserController} through MockMvc: the security filter chain with HTTP Basic,
+ * argument resolution, validation, the repository and JSON rendering.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserControllerBenchmark {
+
+    private static final String USER_JSON = """
+        {"name":"john","lastName":"doe","email":"john.doe@email.com","birthday":"2000-12-01","phoneNumber":"123456789","address":"1234 Main St"}
+        """;
+
+    @Param({ "100000" })
+    int rows;
+
+    /**
+     * Whether the read-through cache in front of GET /users/{id} is enabled.
+     */
+    @Param({ "true", "false" })
+    boolean cache;
+
+    private ConfigurableApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    private RequestPostProcessor admin;
+
+    private long[] ids;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("user.cache.enabled=" + cache);
+        ids = BenchmarkApplication.seed(context, rows);
+
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+            .apply(SecurityMockMvcConfigurers.springSecurity())
+            .build();
+        admin = httpBasic(BenchmarkApplication.OWNER, "abc123");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    @Benchmark
+    public MvcResult findById() throws Exception {
+        return mockMvc.perform(get("/users/{id}", randomId()).with(admin)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult findAll() throws Exception {
+        return mockMvc.perform(get("/users").param("size", "20").with(admin)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult findAllWithoutCount() throws Exception {
+        return mockMvc.perform(get("/users").param("size", "20").param("count", "false").with(admin)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult findAllAfterCursor() throws Exception {
+        return mockMvc.perform(get("/users").param("limit", "20").with(admin)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult findByOwnerAndBetweenDates() throws Exception {
+        return mockMvc.perform(get("/users/{startDate}/{endDate}", "1980-01-01", "1990-01-01").with(admin)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult createUser() throws Exception {
+        return mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON).content(USER_JSON).with(admin)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult updateUser() throws Exception {
+        return mockMvc.perform(put("/users/{id}", randomId()).contentType(MediaType.APPLICATION_JSON).content(USER_JSON).with(admin)).andReturn();
+    }
+
+}
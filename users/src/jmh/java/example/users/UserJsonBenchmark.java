@@ -0,0 +1,84 @@
+package example.users;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Jackson serialization and deserialization of a single user and of a list of users,
+ * with the mapper configured the way Spring Boot configures it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserJsonBenchmark {
+
+    private static final TypeReference<List<User>> USER_LIST = new TypeReference<>() {
+    };
+
+    @Param({ "20", "1000" })
+    int listSize;
+
+    private ObjectMapper objectMapper;
+
+    private User user;
+
+    private byte[] userJson;
+
+    private List<User> users;
+
+    private byte[] usersJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+        user = new User(99L, "john", "doe", "john.doe@email.com", LocalDate.parse("2000-12-01"), "123456789", "1234 Main St", "admin");
+        userJson = objectMapper.writeValueAsBytes(user);
+
+        users = new ArrayList<>(listSize);
+        for (long i = 0; i < listSize; i++) {
+            users.add(new User(i, "name" + i, "last" + i, "user" + i + "@email.com", LocalDate.parse("1990-01-01").plusDays(i), "555" + i, i + " Main St", "admin"));
+        }
+        usersJson = objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public User deserializeUser() throws Exception {
+        return objectMapper.readValue(userJson, User.class);
+    }
+
+    @Benchmark
+    public byte[] serializeUsers() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public List<User> deserializeUsers() throws Exception {
+        return objectMapper.readValue(usersJson, USER_LIST);
+    }
+
+}
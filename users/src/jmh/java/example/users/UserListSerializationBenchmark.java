@@ -0,0 +1,156 @@
+package example.users;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Writing a list of users as JSON, the way the list endpoints and the exports do, before and after
+ * {@link UserJsonSerializer}: Jackson's reflective bean serializer, the hand-written serializer, and rows written
+ * straight from the JDBC result set. Run with {@code -prof gc} (the Gradle build enables it) to compare allocation
+ * per operation as well as time.
+ * <p>
+ * The endpoints stream the body to the response, and the generator encodes into buffers it recycles, so the other
+ * variants write to a null stream. Two more write the whole body to memory, into a new buffer and into one sized
+ * once and reused, to show what a reusable output buffer would save.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserListSerializationBenchmark {
+
+    private static final String SELECT = "SELECT * FROM \"USER\" WHERE OWNER = ? ORDER BY ID LIMIT ?";
+
+    @Param({ "10000" })
+    int listSize;
+
+    private ConfigurableApplicationContext context;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ObjectMapper reflectiveMapper;
+
+    private ObjectMapper handWrittenMapper;
+
+    private List<User> users;
+
+    private ByteArrayOutputStream reusedBuffer;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        // Only the listed owner's users are read, through the OWNER index; a million rows of other owners would only
+        // cost setup time and more heap than the forked JVM has
+        BenchmarkApplication.seed(context, listSize, 1);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        reflectiveMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        handWrittenMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .modulesToInstall(new SimpleModule().addSerializer(User.class, new UserJsonSerializer()))
+            .build();
+
+        users = new ArrayList<>(listSize);
+        jdbcTemplate.query(SELECT, resultSet -> {
+            users.add(UserJdbcRepositoryImpl.mapUser(resultSet));
+        }, BenchmarkApplication.OWNER, listSize);
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try {
+            handWrittenMapper.writeValue(body, users);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        reusedBuffer = new ByteArrayOutputStream(body.size());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void reflectiveSerializer() throws IOException {
+        reflectiveMapper.writeValue(OutputStream.nullOutputStream(), users);
+    }
+
+    @Benchmark
+    public void handWrittenSerializer() throws IOException {
+        handWrittenMapper.writeValue(OutputStream.nullOutputStream(), users);
+    }
+
+    /**
+     * The body held in memory, in a buffer that grows as it is written.
+     */
+    @Benchmark
+    public ByteArrayOutputStream handWrittenSerializerToNewBuffer() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        handWrittenMapper.writeValue(buffer, users);
+        return buffer;
+    }
+
+    /**
+     * The body held in memory, in a buffer sized for it once and reused.
+     */
+    @Benchmark
+    public ByteArrayOutputStream handWrittenSerializerToReusedBuffer() throws IOException {
+        reusedBuffer.reset();
+        handWrittenMapper.writeValue(reusedBuffer, users);
+        return reusedBuffer;
+    }
+
+    /**
+     * The list endpoints before: query, map every row to a {@link User}, then serialize reflectively.
+     */
+    @Benchmark
+    public void queryMapAndSerialize() throws IOException {
+        List<User> mapped = new ArrayList<>(listSize);
+        jdbcTemplate.query(SELECT, resultSet -> {
+            mapped.add(UserJdbcRepositoryImpl.mapUser(resultSet));
+        }, BenchmarkApplication.OWNER, listSize);
+        reflectiveMapper.writeValue(OutputStream.nullOutputStream(), mapped);
+    }
+
+    /**
+     * The exports now: every row written as it is read, without a {@link User} in between.
+     */
+    @Benchmark
+    public void queryAndWriteRows() throws IOException {
+        try (JsonGenerator generator = handWrittenMapper.createGenerator(OutputStream.nullOutputStream())) {
+            UserJsonSerializer.RowWriter writer = new UserJsonSerializer.RowWriter();
+            generator.writeStartArray();
+            jdbcTemplate.query(SELECT, resultSet -> {
+                try {
+                    writer.write(resultSet, generator);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, BenchmarkApplication.OWNER, listSize);
+            generator.writeEndArray();
+        }
+    }
+
+}
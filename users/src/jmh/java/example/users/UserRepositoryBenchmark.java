@@ -0,0 +1,250 @@
+package example.users;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import example.users.metrics.TimedValidator;
+
+/**
+ * Every {@link UserRepository} query against H2, with the table seeded at 10k, 100k and 1M rows spread over
+ * {@value BenchmarkApplication#OWNERS} owners. Paged queries are measured on the first page and on a page
+ * in the middle of the owner's users. Deletes and batch inserts run in a transaction that is rolled back, so the table
+ * keeps the size it was seeded with; their time includes the rollback. Searches and upcoming birthdays are
+ * measured on their first page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserRepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String OWNER = BenchmarkApplication.OWNER;
+
+    private static final LocalDate RANGE_START = LocalDate.now().minusYears(40);
+
+    private static final LocalDate RANGE_END = LocalDate.now().minusYears(30);
+
+    /**
+     * Matches the names name12 and name120 to name129, about one user in 90, and no last name or email.
+     */
+    private static final String SEARCH_PREFIX = "name12";
+
+    @Param({ "10000", "100000", "1000000" })
+    int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private UserRepository userRepository;
+
+    private long[] ids;
+
+    private int middlePage;
+
+    private User middleUser;
+
+    private User middleOfRange;
+
+    private TransactionTemplate rolledBack;
+
+    private UserPatch patch;
+
+    private List<User> batch;
+
+    private BirthdayWindow birthdayWindow;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        ids = BenchmarkApplication.seed(context, rows);
+        userRepository = context.getBean(UserRepository.class);
+
+        middlePage = ids.length / PAGE_SIZE / 2;
+        List<User> firstHalf = userRepository.findKeysetPageByOwner(OWNER, middlePage * PAGE_SIZE);
+        middleUser = firstHalf.get(firstHalf.size() - 1);
+
+        List<User> range = userRepository.findByOwnerAndBetweenDates(OWNER, RANGE_START, RANGE_END, ids.length);
+        middleOfRange = range.get(range.size() / 2);
+
+        rolledBack = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        try {
+            patch = UserPatch.from(objectMapper.readTree("{\"name\":\"john\",\"phoneNumber\":\"123456789\"}"), objectMapper,
+                context.getBean(TimedValidator.class));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new User(null, "john", "doe", "john.doe" + i + "@email.com", LocalDate.parse("2000-12-01"), "123456789", "1234 Main St", OWNER));
+        }
+
+        birthdayWindow = BirthdayWindow.of(LocalDate.now(), 30);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    @Benchmark
+    public User findByIdAndOwner() {
+        return userRepository.findByIdAndOwner(randomId(), OWNER);
+    }
+
+    @Benchmark
+    public boolean existsByIdAndOwner() {
+        return userRepository.existsByIdAndOwner(randomId(), OWNER);
+    }
+
+    @Benchmark
+    public Long findVersionByIdAndOwner() {
+        return userRepository.findVersionByIdAndOwner(randomId(), OWNER);
+    }
+
+    @Benchmark
+    public Page<User> findByOwnerFirstPage() {
+        return userRepository.findByOwner(OWNER, PageRequest.of(0, PAGE_SIZE, Sort.by("name")));
+    }
+
+    @Benchmark
+    public Page<User> findByOwnerMiddlePage() {
+        return userRepository.findByOwner(OWNER, PageRequest.of(middlePage, PAGE_SIZE, Sort.by("name")));
+    }
+
+    @Benchmark
+    public Slice<User> findSliceByOwnerMiddlePage() {
+        return userRepository.findSliceByOwner(OWNER, PageRequest.of(middlePage, PAGE_SIZE, Sort.by("name")));
+    }
+
+    @Benchmark
+    public List<User> findKeysetPageByOwner() {
+        return userRepository.findKeysetPageByOwner(OWNER, PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    public List<User> findKeysetPageByOwnerAfterMiddle() {
+        return userRepository.findKeysetPageByOwnerAfter(OWNER, middleUser.getName(), middleUser.getId(), PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    public List<User> findByOwnerAndBetweenDates() {
+        return userRepository.findByOwnerAndBetweenDates(OWNER, RANGE_START, RANGE_END, UserController.DEFAULT_RANGE_PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    public List<User> findByOwnerAndBetweenDatesAfterMiddle() {
+        return userRepository.findByOwnerAndBetweenDatesAfter(OWNER, RANGE_START, RANGE_END, middleOfRange.getBirthday(), middleOfRange.getId(),
+            UserController.DEFAULT_RANGE_PAGE_SIZE + 1);
+    }
+
+    /**
+     * The first page of a search, as {@code GET /users/search} runs it: three index range scans joined by UNION.
+     */
+    @Benchmark
+    public List<User> searchByOwner() {
+        return userRepository.searchByOwner(OWNER, SEARCH_PREFIX, SEARCH_PREFIX + Character.MAX_VALUE, PAGE_SIZE, 0);
+    }
+
+    /**
+     * The first page of the birthdays in the next 30 days, read through the generated {@code BIRTHDAY_DOY} column.
+     */
+    @Benchmark
+    public List<User> findUpcomingBirthdaysByOwner() {
+        return userRepository.findUpcomingBirthdaysByOwner(OWNER, birthdayWindow.firstStart(), birthdayWindow.firstEnd(),
+            birthdayWindow.firstAfterId(), birthdayWindow.secondStart(), birthdayWindow.secondEnd(), birthdayWindow.secondAfterId(),
+            UserController.DEFAULT_RANGE_PAGE_SIZE + 1);
+    }
+
+    /**
+     * Reads every row of the owner without mapping them, as the export does before writing each one.
+     */
+    @Benchmark
+    public int streamByOwner() {
+        int[] rowCount = new int[1];
+        userRepository.streamByOwner(OWNER, resultSet -> rowCount[0]++);
+        return rowCount[0];
+    }
+
+    @Benchmark
+    public int streamByOwnerAndBetweenDates() {
+        int[] rowCount = new int[1];
+        userRepository.streamByOwnerAndBetweenDates(OWNER, RANGE_START, RANGE_END, resultSet -> rowCount[0]++);
+        return rowCount[0];
+    }
+
+    @Benchmark
+    public int patchByIdAndOwner() {
+        return userRepository.patchByIdAndOwner(randomId(), OWNER, patch, null);
+    }
+
+    @Benchmark
+    public Integer deleteByIdAndOwner() {
+        return rolledBack.execute(status -> {
+            status.setRollbackOnly();
+            return userRepository.deleteByIdAndOwner(randomId(), OWNER);
+        });
+    }
+
+    /**
+     * Inserts {@value #BATCH_SIZE} users, the default {@code user.batch.size} of {@code POST /users/batch}.
+     */
+    @Benchmark
+    public List<Long> insertBatch() {
+        return rolledBack.execute(status -> {
+            status.setRollbackOnly();
+            return userRepository.insertBatch(batch);
+        });
+    }
+
+    /**
+     * A {@code PUT} with {@code If-Match}: reads the user's current version, as the client did before, then updates
+     * only if it still matches. Both run in a transaction that is rolled back, so versions do not drift between calls.
+     */
+    @Benchmark
+    public Integer updateByIdAndOwnerAndVersion() {
+        return rolledBack.execute(status -> {
+            status.setRollbackOnly();
+            long id = randomId();
+            Long version = userRepository.findVersionByIdAndOwner(id, OWNER);
+            return userRepository.updateByIdAndOwnerAndVersion(id, OWNER, "john", "doe", "john.doe@email.com",
+                LocalDate.parse("2000-12-01"), "123456789", "1234 Main St", version);
+        });
+    }
+
+    @Benchmark
+    public int updateByIdAndOwner() {
+        return userRepository.updateByIdAndOwner(randomId(), OWNER, "john", "doe", "john.doe@email.com",
+            LocalDate.parse("2000-12-01"), "123456789", "1234 Main St");
+    }
+
+}
@@ -0,0 +1,65 @@
+package example.users;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Bean Validation of a user, including the {@code @Adult} check, through the validator of the running application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserValidationBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    private Validator validator;
+
+    private User validUser;
+
+    private User invalidUser;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        validator = context.getBean(Validator.class);
+
+        validUser = new User(null, "john", "doe", "john.doe@email.com", LocalDate.parse("2000-12-01"), "123456789", "1234 Main St", null);
+        invalidUser = new User(null, "", "doe", "not-an-email", LocalDate.now().minusYears(10), "123456789", "1234 Main St", null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<User>> validateValidUser() {
+        return validator.validate(validUser);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<User>> validateInvalidUser() {
+        return validator.validate(invalidUser);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<User>> validateBirthday() {
+        return validator.validateProperty(validUser, "birthday");
+    }
+
+}
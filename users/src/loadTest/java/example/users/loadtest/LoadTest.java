@@ -0,0 +1,161 @@
+package example.users.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import example.users.UsersApplication;
+import example.users.loadtest.LoadTestClient.Operation;
+import example.users.loadtest.LoadTestClient.Samples;
+
+/**
+ * Boots the application against a synthetic dataset, runs a mixed workload against it from concurrent clients
+ * and writes the throughput and latency percentiles of every operation to a JSON file.
+ * Run it with {@code ./gradlew loadTest}; the {@code loadTest.*} properties below can be passed with {@code -P}.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("loadTest.users", 1_000_000);
+        int owners = Integer.getInteger("loadTest.owners", 1_000);
+        int clients = Integer.getInteger("loadTest.clients", 32);
+        boolean virtualThreads = Boolean.getBoolean("loadTest.virtualThreads");
+        String profiles = System.getProperty("loadTest.profiles", "");
+        long seed = Long.getLong("loadTest.seed", 42);
+        Duration warmup = DurationStyle.detectAndParse(System.getProperty("loadTest.warmup", "15s"));
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("loadTest.duration", "60s"));
+        File output = new File(System.getProperty("loadTest.output", "build/reports/loadtest/results.json"));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UsersApplication.class, LoadTestOwners.class)
+                .profiles(profiles.isBlank() ? new String[0] : profiles.split(","))
+                .properties(
+                    "server.port=0",
+                    "user.schema.plan-check=off",
+                    "logging.level.root=warn",
+                    "spring.threads.virtual.enabled=" + virtualThreads,
+                    "loadTest.owners=" + owners)
+                .run(args)) {
+
+            System.out.printf("Seeding %d users across %d owners%n", users, owners);
+            LoadTestDataset dataset = LoadTestDataset.seed(context.getBean(JdbcTemplate.class), users, owners, seed);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI baseUri = URI.create("http://localhost:" + port);
+            HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            System.out.printf("Running %d clients for %s after a %s warmup, virtual threads %s%n", clients, duration, warmup,
+                virtualThreads ? "enabled" : "disabled");
+            long start = System.nanoTime();
+            long warmupEnd = start + warmup.toNanos();
+            long end = warmupEnd + duration.toNanos();
+
+            List<LoadTestClient> loadTestClients = new ArrayList<>(clients);
+            List<Thread> threads = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                LoadTestClient client = new LoadTestClient(httpClient, baseUri, dataset, warmupEnd, end, seed + i);
+                loadTestClients.add(client);
+                Thread thread = new Thread(client, "load-test-client-" + i);
+                thread.start();
+                threads.add(thread);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            Map<Operation, Samples> samples = new EnumMap<>(Operation.class);
+            for (Operation operation : Operation.values()) {
+                Samples merged = new Samples();
+                loadTestClients.forEach(client -> merged.addAll(client.samples().get(operation)));
+                samples.put(operation, merged);
+            }
+
+            Map<String, Object> report = report(samples, users, owners, clients, virtualThreads, seed, warmup, duration);
+            write(report, output);
+            System.out.printf("Results written to %s%n", output.getAbsolutePath());
+        }
+    }
+
+    private static Map<String, Object> report(Map<Operation, Samples> samples, int users, int owners, int clients,
+            boolean virtualThreads, long seed, Duration warmup, Duration duration) {
+        double seconds = duration.toNanos() / 1e9;
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        Samples all = new Samples();
+        for (Map.Entry<Operation, Samples> entry : samples.entrySet()) {
+            operations.put(entry.getKey().name(), summary(entry.getValue(), seconds));
+            all.addAll(entry.getValue());
+        }
+
+        Map<String, Object> dataset = new LinkedHashMap<>();
+        dataset.put("users", users);
+        dataset.put("owners", owners);
+        dataset.put("seed", seed);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("commit", System.getProperty("loadTest.commit", ""));
+        report.put("dataset", dataset);
+        report.put("clients", clients);
+        report.put("virtualThreads", virtualThreads);
+        report.put("warmupSeconds", warmup.toSeconds());
+        report.put("durationSeconds", duration.toSeconds());
+        report.put("total", summary(all, seconds));
+        report.put("operations", operations);
+        return report;
+    }
+
+    private static Map<String, Object> summary(Samples samples, double seconds) {
+        long[] latencies = samples.sorted();
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", latencies.length);
+        summary.put("errors", samples.errors());
+        summary.put("throughputPerSecond", round(latencies.length / seconds));
+        summary.put("p50Millis", percentile(latencies, 0.50));
+        summary.put("p99Millis", percentile(latencies, 0.99));
+        summary.put("p999Millis", percentile(latencies, 0.999));
+        summary.put("maxMillis", latencies.length == 0 ? 0 : round(latencies[latencies.length - 1] / 1e6));
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return round(sorted[Math.max(0, index)] / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static void write(Map<String, Object> report, File output) throws IOException {
+        File parent = output.getAbsoluteFile().getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, report);
+    }
+
+}
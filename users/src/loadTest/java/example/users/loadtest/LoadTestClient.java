@@ -0,0 +1,220 @@
+package example.users.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * One client of the load test. It sends requests back to back, picking each operation and owner at random,
+ * and records the latency of every request sent after the warmup.
+ * Users are only deleted after this client created them, so the seeded dataset keeps its size.
+ */
+final class LoadTestClient implements Runnable {
+
+    /**
+     * The operations of the workload and their share of it.
+     */
+    enum Operation {
+        FIND_BY_ID(50),
+        FIND_ALL(15),
+        FIND_BY_DATES(15),
+        CREATE(8),
+        UPDATE(8),
+        DELETE(4);
+
+        private static final int TOTAL_WEIGHT = Arrays.stream(values()).mapToInt(operation -> operation.weight).sum();
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+
+        static Operation pick(Random random) {
+            int n = random.nextInt(TOTAL_WEIGHT);
+            for (Operation operation : values()) {
+                n -= operation.weight;
+                if (n < 0) {
+                    return operation;
+                }
+            }
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * The latencies of one operation, in nanoseconds, and its failed requests.
+     */
+    static final class Samples {
+
+        private long[] latencies = new long[1024];
+
+        private int size;
+
+        private long errors;
+
+        void add(long latency, boolean failed) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latency;
+            if (failed) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.latencies[i], false);
+            }
+            errors += other.errors;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long errors() {
+            return errors;
+        }
+
+        /**
+         * @return the latencies recorded so far, sorted
+         */
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    private static final String USER_JSON = """
+        {"name":"%s","lastName":"load","email":"%s.load@email.com","birthday":"%s","phoneNumber":"123456789","address":"1 Main St"}
+        """;
+
+    private final HttpClient httpClient;
+
+    private final URI baseUri;
+
+    private final LoadTestDataset dataset;
+
+    private final String[] authorizations;
+
+    private final long warmupEnd;
+
+    private final long end;
+
+    private final Random random;
+
+    private final Map<Operation, Samples> samples = new EnumMap<>(Operation.class);
+
+    private final Deque<long[]> created = new ArrayDeque<>();
+
+    LoadTestClient(HttpClient httpClient, URI baseUri, LoadTestDataset dataset, long warmupEnd, long end, long seed) {
+        this.httpClient = httpClient;
+        this.baseUri = baseUri;
+        this.dataset = dataset;
+        this.warmupEnd = warmupEnd;
+        this.end = end;
+        this.random = new Random(seed);
+        this.authorizations = new String[dataset.owners()];
+        for (int owner = 0; owner < authorizations.length; owner++) {
+            String credentials = LoadTestOwners.ownerName(owner) + ":" + LoadTestOwners.PASSWORD;
+            authorizations[owner] = "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+        }
+        for (Operation operation : Operation.values()) {
+            samples.put(operation, new Samples());
+        }
+    }
+
+    Map<Operation, Samples> samples() {
+        return samples;
+    }
+
+    @Override
+    public void run() {
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            Operation operation = Operation.pick(random);
+            if (operation == Operation.DELETE && created.isEmpty()) {
+                operation = Operation.CREATE;
+            }
+            int owner = random.nextInt(dataset.owners());
+            if (dataset.ids(owner).length == 0 && (operation == Operation.FIND_BY_ID || operation == Operation.UPDATE)) {
+                operation = Operation.CREATE;
+            }
+
+            HttpRequest request = request(operation, owner);
+            boolean failed;
+            HttpResponse<String> response = null;
+            try {
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                // An empty date range is answered with 404, which is a valid outcome for this workload
+                failed = response.statusCode() >= 400
+                    && !(operation == Operation.FIND_BY_DATES && response.statusCode() == 404);
+            } catch (Exception e) {
+                failed = true;
+            }
+            long latency = System.nanoTime() - now;
+
+            if (operation == Operation.CREATE && !failed) {
+                response.headers().firstValue("Location").ifPresent(location ->
+                    created.push(new long[] { owner, Long.parseLong(location.substring(location.lastIndexOf('/') + 1)) }));
+            }
+            if (now >= warmupEnd) {
+                samples.get(operation).add(latency, failed);
+            }
+        }
+    }
+
+    private HttpRequest request(Operation operation, int owner) {
+        HttpRequest.Builder builder;
+        switch (operation) {
+            case FIND_BY_ID -> builder = HttpRequest.newBuilder(uri("/users/" + randomId(owner))).GET();
+            case FIND_ALL -> builder = HttpRequest.newBuilder(uri("/users?size=20&page=" + random.nextInt(5))).GET();
+            case FIND_BY_DATES -> {
+                int startYear = 1935 + random.nextInt(70);
+                builder = HttpRequest.newBuilder(uri("/users/" + startYear + "-01-01/" + (startYear + 5) + "-01-01")).GET();
+            }
+            case CREATE -> builder = HttpRequest.newBuilder(uri("/users"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(userJson()));
+            case UPDATE -> builder = HttpRequest.newBuilder(uri("/users/" + randomId(owner)))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(userJson()));
+            case DELETE -> {
+                long[] ownerAndId = created.pop();
+                return HttpRequest.newBuilder(uri("/users/" + ownerAndId[1]))
+                    .header("Authorization", authorizations[(int) ownerAndId[0]])
+                    .DELETE()
+                    .build();
+            }
+            default -> throw new IllegalStateException();
+        }
+        return builder.header("Authorization", authorizations[owner]).build();
+    }
+
+    private URI uri(String path) {
+        return baseUri.resolve(path);
+    }
+
+    private long randomId(int owner) {
+        long[] ids = dataset.ids(owner);
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private String userJson() {
+        String name = "load" + random.nextInt(100_000);
+        return USER_JSON.formatted(name, name, "19" + (50 + random.nextInt(50)) + "-06-15");
+    }
+
+}
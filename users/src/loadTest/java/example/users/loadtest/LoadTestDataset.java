@@ -0,0 +1,125 @@
+package example.users.loadtest;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * A synthetic set of users spread evenly over a number of owners, generated from a fixed seed so runs are comparable.
+ * Ages follow a normal distribution around 38 years, clipped to 18 to 95, with birthdays spread over the year.
+ */
+final class LoadTestDataset {
+
+    private static final String INSERT = """
+        INSERT INTO "USER" (NAME, LAST_NAME, EMAIL, BIRTHDAY, PHONE_NUMBER, ADDRESS, OWNER) VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private static final String[] NAMES = {
+        "james", "mary", "robert", "patricia", "john", "jennifer", "michael", "linda", "david", "elizabeth",
+        "william", "barbara", "richard", "susan", "joseph", "jessica", "thomas", "sarah", "charles", "karen",
+        "daniel", "nancy", "matthew", "lisa", "anthony", "betty", "mark", "sandra", "paul", "ashley"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "smith", "johnson", "williams", "brown", "jones", "garcia", "miller", "davis", "rodriguez", "martinez",
+        "hernandez", "lopez", "gonzalez", "wilson", "anderson", "thomas", "taylor", "moore", "jackson", "martin",
+        "lee", "perez", "thompson", "white", "harris", "sanchez", "clark", "ramirez", "lewis", "robinson"
+    };
+
+    private final int owners;
+
+    private final long[][] idsByOwner;
+
+    private LoadTestDataset(int owners, long[][] idsByOwner) {
+        this.owners = owners;
+        this.idsByOwner = idsByOwner;
+    }
+
+    /**
+     * Inserts the users in JDBC batches and reads back the ID of every user by owner.
+     * A database that already holds users, such as a persistent one from an earlier run, is used as it is.
+     *
+     * @param jdbcTemplate the template of the application under test
+     * @param users the number of users to insert
+     * @param owners the number of owners to spread them over
+     * @param seed the seed of the generator
+     * @return the dataset
+     */
+    static LoadTestDataset seed(JdbcTemplate jdbcTemplate, int users, int owners, long seed) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"USER\"", Integer.class);
+        if (existing == null || existing == 0) {
+            insert(jdbcTemplate, users, owners, seed);
+        } else {
+            System.out.printf("Reusing the %d users already in the database%n", existing);
+        }
+
+        long[][] idsByOwner = new long[owners][16];
+        int[] counts = new int[owners];
+        jdbcTemplate.query("SELECT ID, OWNER FROM \"USER\" WHERE OWNER LIKE 'owner%'", rs -> {
+            int owner = Integer.parseInt(rs.getString(2).substring("owner".length()));
+            if (owner >= owners) {
+                return;
+            }
+            if (counts[owner] == idsByOwner[owner].length) {
+                idsByOwner[owner] = Arrays.copyOf(idsByOwner[owner], counts[owner] * 2);
+            }
+            idsByOwner[owner][counts[owner]++] = rs.getLong(1);
+        });
+        for (int owner = 0; owner < owners; owner++) {
+            idsByOwner[owner] = Arrays.copyOf(idsByOwner[owner], counts[owner]);
+        }
+        return new LoadTestDataset(owners, idsByOwner);
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, int users, int owners, long seed) {
+        Random random = new Random(seed);
+        LocalDate today = LocalDate.now();
+
+        for (int start = 0; start < users; start += BATCH_SIZE) {
+            int first = start;
+            int size = Math.min(BATCH_SIZE, users - start);
+            jdbcTemplate.batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int n = first + i;
+                    String name = NAMES[random.nextInt(NAMES.length)];
+                    String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                    int age = (int) Math.max(18, Math.min(95, Math.round(38 + random.nextGaussian() * 14)));
+                    ps.setString(1, name);
+                    ps.setString(2, lastName);
+                    ps.setString(3, name + "." + lastName + n + "@email.com");
+                    ps.setObject(4, today.minusYears(age).minusDays(random.nextInt(365)));
+                    ps.setString(5, String.valueOf(100_000_000 + random.nextInt(900_000_000)));
+                    ps.setString(6, (1 + random.nextInt(9999)) + " Main St");
+                    ps.setString(7, LoadTestOwners.ownerName(random.nextInt(owners)));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    int owners() {
+        return owners;
+    }
+
+    /**
+     * @return the IDs of the seeded users of the owner; empty if the owner has none
+     */
+    long[] ids(int owner) {
+        return idsByOwner[owner];
+    }
+
+}
@@ -0,0 +1,43 @@
+package example.users.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+/**
+ * Replaces the three test owners with the owners of the synthetic dataset, {@code owner0} to {@code owner<n-1>}.
+ * They share one encoded password so startup does not pay for thousands of BCrypt hashes.
+ */
+@Configuration(proxyBeanMethods = false)
+class LoadTestOwners {
+
+    static final String PASSWORD = "abc123";
+
+    static String ownerName(int owner) {
+        return "owner" + owner;
+    }
+
+    @Bean
+    @Primary
+    UserDetailsService loadTestUsers(PasswordEncoder passwordEncoder, @Value("${loadTest.owners}") int owners) {
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+        List<UserDetails> users = new ArrayList<>(owners);
+        for (int owner = 0; owner < owners; owner++) {
+            users.add(User.withUsername(ownerName(owner))
+                .password(encodedPassword)
+                .roles("USER-OWNER")
+                .build());
+        }
+        return new InMemoryUserDetailsManager(users);
+    }
+
+}
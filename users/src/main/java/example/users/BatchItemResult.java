@@ -0,0 +1,26 @@
+package example.users;
+
+import java.util.Map;
+
+/**
+ * The outcome of one element of a bulk create request.
+ *
+ * @param index the position of the element in the request, starting at 0
+ * @param status the HTTP status the element would have received on its own: 201, 400 or 500
+ * @param id the ID of the created user, or null if it was not created
+ * @param errors the reasons the element was rejected, keyed by field, or null if it was created
+ */
+record BatchItemResult(int index, int status, Long id, Map<String, String> errors) {
+
+    static BatchItemResult created(int index, Long id) {
+        return new BatchItemResult(index, 201, id, null);
+    }
+
+    static BatchItemResult invalid(int index, Map<String, String> errors) {
+        return new BatchItemResult(index, 400, null, errors);
+    }
+
+    static BatchItemResult failed(int index, String message) {
+        return new BatchItemResult(index, 500, null, Map.of("message", message));
+    }
+}
@@ -0,0 +1,64 @@
+package example.users;
+
+import java.time.LocalDate;
+
+/**
+ * The birthdays falling within a number of days from today, whatever the year of birth. Birthdays are compared as
+ * {@code month * 100 + day}, the generated {@code BIRTHDAY_DOY} column, so a window is one or, when it crosses the end
+ * of the year, two ranges of that column, each an index range scan. The first range is the rest of this year.
+ * In a year without 29 February, birthdays on that day come up on 1 March.
+ * <p>
+ * Each range also carries the ID to continue after on its first day, for keyset pagination.
+ */
+record BirthdayWindow(int firstStart, int firstEnd, long firstAfterId, int secondStart, int secondEnd, long secondAfterId) {
+
+    static final int MAX_DAYS = 366;
+
+    private static final int FIRST_DAY = 101;
+
+    private static final int LAST_DAY = 1231;
+
+    private static final int LEAP_DAY = 229;
+
+    private static final int MARCH_FIRST = 301;
+
+    /**
+     * @param today the first day of the window
+     * @param days the number of days in the window, today included, between 1 and {@value #MAX_DAYS}
+     * @return the window
+     * @throws IllegalArgumentException if the number of days is out of range
+     */
+    static BirthdayWindow of(LocalDate today, int days) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + MAX_DAYS);
+        }
+        LocalDate last = today.plusDays(days - 1);
+        int start = dayOf(today);
+        if (start == MARCH_FIRST && !today.isLeapYear()) {
+            // Ranges that reach past 28 February from an earlier day already hold 229
+            start = LEAP_DAY;
+        }
+        int end = dayOf(last);
+        if (last.getYear() == today.getYear()) {
+            return new BirthdayWindow(start, end, Long.MIN_VALUE, FIRST_DAY, FIRST_DAY - 1, Long.MIN_VALUE);
+        }
+        // A window of a whole year ends on the day it started; that day is already in the first range
+        return new BirthdayWindow(start, LAST_DAY, Long.MIN_VALUE, FIRST_DAY, Math.min(end, start - 1), Long.MIN_VALUE);
+    }
+
+    static int dayOf(LocalDate date) {
+        return date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+
+    /**
+     * @param day the birthday of the last user of the previous page, as {@code month * 100 + day}
+     * @param id the ID of that user
+     * @return the rest of this window after that user
+     */
+    BirthdayWindow after(int day, long id) {
+        if (day >= firstStart && day <= firstEnd) {
+            return new BirthdayWindow(day, firstEnd, id, secondStart, secondEnd, secondAfterId);
+        }
+        return new BirthdayWindow(FIRST_DAY, FIRST_DAY - 1, Long.MIN_VALUE, day, secondEnd, id);
+    }
+}
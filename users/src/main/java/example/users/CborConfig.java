@@ -0,0 +1,25 @@
+package example.users;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * Serves and accepts users as CBOR ({@code application/cbor}) next to JSON, for callers that ask for it with
+ * {@code Accept} or send it with {@code Content-Type}. JSON stays the default for every other client.
+ */
+@Configuration(proxyBeanMethods = false)
+class CborConfig {
+
+   /**
+    * Replaces Spring MVC's default CBOR converter, keeping its place after the JSON one, with one built from
+    * Spring Boot's mapper builder, so {@code spring.jackson.*} and {@link UserJsonSerializer} apply to CBOR too.
+    */
+   @Bean
+   MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+       return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+   }
+}
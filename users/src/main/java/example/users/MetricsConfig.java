@@ -0,0 +1,95 @@
+package example.users;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import example.users.metrics.EndpointRepositoryTagsProvider;
+import example.users.metrics.SlowRepositoryInvocationLogger;
+import example.users.metrics.TimedJacksonHttpMessageConverter;
+import example.users.metrics.TimedValidator;
+import example.users.security.VerifiedCredentialCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+@Configuration
+class MetricsConfig {
+
+   @Bean
+   RepositoryTagsProvider repositoryTagsProvider() {
+       return new EndpointRepositoryTagsProvider();
+   }
+
+   @Bean
+   static BeanPostProcessor slowRepositoryInvocationLogging(
+        @Value("${user.metrics.slow-repository-call-threshold:250ms}") Duration threshold) {
+       SlowRepositoryInvocationLogger logger = new SlowRepositoryInvocationLogger(threshold);
+       return new BeanPostProcessor() {
+           @Override
+           public Object postProcessBeforeInitialization(Object bean, String beanName) {
+               if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+                   repositoryFactoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(logger));
+               }
+               return bean;
+           }
+       };
+   }
+
+   @Bean
+   TimedValidator timedValidator(jakarta.validation.Validator validator, MeterRegistry meterRegistry) {
+       return new TimedValidator(validator, meterRegistry);
+   }
+
+   @Bean
+   WebMvcConfigurer validationMetrics(TimedValidator timedValidator) {
+       return new WebMvcConfigurer() {
+           @Override
+           public org.springframework.validation.Validator getValidator() {
+               return timedValidator;
+           }
+       };
+   }
+
+   @Bean
+   TimedJacksonHttpMessageConverter timedJacksonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+       return new TimedJacksonHttpMessageConverter(objectMapper, meterRegistry);
+   }
+
+   @Bean
+   MeterBinder userCacheMetrics(UserCache userCache) {
+       return registry -> {
+           if (userCache.isEnabled()) {
+               CaffeineCacheMetrics.monitor(registry, userCache.nativeCache(), "users");
+           }
+       };
+   }
+
+   @Bean
+   MeterBinder credentialCacheMetrics(VerifiedCredentialCache verifiedCredentialCache) {
+       return registry -> {
+           FunctionCounter.builder("users.auth.credential.cache", verifiedCredentialCache, VerifiedCredentialCache::hitCount)
+               .tag("result", "hit")
+               .description("Authentications accepted without running the password encoder")
+               .register(registry);
+           FunctionCounter.builder("users.auth.credential.cache", verifiedCredentialCache, VerifiedCredentialCache::missCount)
+               .tag("result", "miss")
+               .description("Authentications that ran the password encoder")
+               .register(registry);
+           FunctionCounter.builder("users.auth.credential.cache.evictions", verifiedCredentialCache, VerifiedCredentialCache::evictionCount)
+               .register(registry);
+           Gauge.builder("users.auth.credential.cache.size", verifiedCredentialCache, VerifiedCredentialCache::size)
+               .register(registry);
+       };
+   }
+}
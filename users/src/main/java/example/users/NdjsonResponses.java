@@ -0,0 +1,50 @@
+package example.users;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Builds newline-delimited JSON response bodies that write each user as it is produced.
+ */
+final class NdjsonResponses {
+
+    static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private NdjsonResponses() {
+    }
+
+    /**
+     * Creates a body that writes one JSON line per row of the "USER" table handed to the handler,
+     * straight from the row, without mapping it to a {@link User}.
+     *
+     * @param objectMapper the mapper whose generator settings are used
+     * @param source the producer of rows, called once the response is being written
+     * @return the streaming response body
+     */
+    static StreamingResponseBody ofUsers(ObjectMapper objectMapper, Consumer<RowCallbackHandler> source) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                UserJsonSerializer.RowWriter writer = new UserJsonSerializer.RowWriter();
+                source.accept(resultSet -> {
+                    try {
+                        writer.write(resultSet, generator);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+}
@@ -0,0 +1,195 @@
+package example.users;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs EXPLAIN on the SQL issued by {@link UserRepository} at startup and reports any query
+ * that reads a whole table. {@code user.schema.plan-check} selects warn, fail or off.
+ */
+@Component
+class QueryPlanCheck implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryPlanCheck.class);
+
+    private static final String SAMPLE_OWNER = "admin";
+
+    private static final long SAMPLE_ID = 99L;
+
+    private static final int SAMPLE_INT = 20;
+
+    private static final LocalDate SAMPLE_DATE = LocalDate.parse("2000-01-01");
+
+    /**
+     * The comment H2 writes after each table in a plan: the index it reads and, after a colon, the conditions it
+     * looks up in that index. Other plan comments, such as {@code index sorted}, contain spaces and do not match.
+     */
+    private static final Pattern TABLE_ACCESS = Pattern.compile("/\\* ([^\\s:*]+)(: [^*]*)? \\*/");
+
+    /**
+     * The derived queries, which have no SQL of their own, written the way Spring Data JDBC renders them.
+     * The repository must still declare a method of each name, so a rename cannot leave an entry behind, and
+     * DerivedQueryPlanTests checks that the SQL Spring Data JDBC sends reads the same indexes as these.
+     */
+    private static final Map<String, String> DERIVED_QUERIES = derivedQueries();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final String mode;
+
+    QueryPlanCheck(JdbcTemplate jdbcTemplate, @Value("${user.schema.plan-check:warn}") String mode) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.mode = mode;
+    }
+
+    private static Map<String, String> derivedQueries() {
+        Map<String, String> queries = new LinkedHashMap<>();
+        queries.put("findByIdAndOwner", "SELECT * FROM \"USER\" WHERE ID = :id AND OWNER = :owner");
+        queries.put("findByOwner", "SELECT * FROM \"USER\" WHERE OWNER = :owner ORDER BY NAME ASC LIMIT :limit");
+        queries.put("findSliceByOwner", "SELECT * FROM \"USER\" WHERE OWNER = :owner ORDER BY NAME ASC LIMIT :limit");
+        queries.put("existsByIdAndOwner", "SELECT ID FROM \"USER\" WHERE ID = :id AND OWNER = :owner LIMIT 1");
+        return queries;
+    }
+
+    /**
+     * @return the names of the derived queries checked
+     */
+    static Set<String> derivedQueryNames() {
+        return DERIVED_QUERIES.keySet();
+    }
+
+    /**
+     * The repository's access paths: the text of every {@link Query} on {@link UserRepository}, the streaming
+     * queries of {@link UserJdbcRepositoryImpl} and the derived queries, with a sample value bound to each parameter.
+     */
+    static List<CheckedQuery> checkedQueries() {
+        List<CheckedQuery> queries = new ArrayList<>();
+
+        DERIVED_QUERIES.forEach((name, sql) -> {
+            if (Arrays.stream(UserRepository.class.getDeclaredMethods()).noneMatch(method -> method.getName().equals(name))) {
+                throw new IllegalStateException("UserRepository no longer declares " + name);
+            }
+            queries.add(new CheckedQuery(name, sql, Map.of("id", SAMPLE_ID, "owner", SAMPLE_OWNER, "limit", SAMPLE_INT)));
+        });
+        queries.add(new CheckedQuery("findByOwner (count)", "SELECT COUNT(*) FROM \"USER\" WHERE OWNER = :owner",
+            Map.of("owner", SAMPLE_OWNER)));
+
+        Arrays.stream(UserRepository.class.getDeclaredMethods())
+            .filter(method -> method.isAnnotationPresent(Query.class))
+            .sorted(Comparator.comparing(Method::getName))
+            .forEach(method -> queries.add(new CheckedQuery(method.getName(), method.getAnnotation(Query.class).value(), sampleArguments(method))));
+
+        queries.add(new CheckedQuery("streamByOwner", UserJdbcRepositoryImpl.STREAM_BY_OWNER,
+            Map.of("owner", SAMPLE_OWNER)));
+        queries.add(new CheckedQuery("streamByOwnerAndBetweenDates", UserJdbcRepositoryImpl.STREAM_BY_OWNER_AND_BETWEEN_DATES,
+            Map.of("owner", SAMPLE_OWNER, "startDate", SAMPLE_DATE, "endDate", SAMPLE_DATE)));
+        return queries;
+    }
+
+    private static Map<String, Object> sampleArguments(Method method) {
+        Map<String, Object> arguments = new LinkedHashMap<>();
+        for (Parameter parameter : method.getParameters()) {
+            Param param = parameter.getAnnotation(Param.class);
+            if (param == null) {
+                throw new IllegalStateException(method.getName() + " has a parameter without @Param");
+            }
+            arguments.put(param.value(), sampleValue(method, parameter.getType()));
+        }
+        return arguments;
+    }
+
+    private static Object sampleValue(Method method, Class<?> type) {
+        if (type == String.class) {
+            return SAMPLE_OWNER;
+        }
+        if (type == Long.class || type == long.class) {
+            return SAMPLE_ID;
+        }
+        if (type == Integer.class || type == int.class) {
+            return SAMPLE_INT;
+        }
+        if (type == LocalDate.class) {
+            return SAMPLE_DATE;
+        }
+        throw new IllegalStateException("No sample value of " + type.getSimpleName() + " for " + method.getName());
+    }
+
+    /**
+     * Lists the tables a plan reads in full: those read through H2's table scan, and those walked through
+     * an index without any condition to look up in it.
+     *
+     * @param plan the output of EXPLAIN
+     * @return the index of every full read, empty if each table is read through an index lookup
+     */
+    static List<String> fullScans(String plan) {
+        List<String> scans = new ArrayList<>();
+        Matcher matcher = TABLE_ACCESS.matcher(plan);
+        while (matcher.find()) {
+            String index = matcher.group(1);
+            if (matcher.group(2) == null || index.endsWith(".tableScan")) {
+                scans.add(index);
+            }
+        }
+        return scans;
+    }
+
+    /**
+     * Lists the index, or table scan, through which a plan reads each table.
+     *
+     * @param plan the output of EXPLAIN
+     * @return the index of every table access, in plan order
+     */
+    static List<String> indexesRead(String plan) {
+        List<String> indexes = new ArrayList<>();
+        Matcher matcher = TABLE_ACCESS.matcher(plan);
+        while (matcher.find()) {
+            indexes.add(matcher.group(1));
+        }
+        return indexes;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if ("off".equalsIgnoreCase(mode)) {
+            return;
+        }
+
+        List<String> tableScans = new ArrayList<>();
+        for (CheckedQuery query : checkedQueries()) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + query.sql(), query.args(), String.class);
+            List<String> scans = plan == null ? List.of() : fullScans(plan);
+            if (!scans.isEmpty()) {
+                tableScans.add(query.name());
+                log.warn("Query {} reads {} in full: {}", query.name(), scans, plan);
+            }
+        }
+
+        if (!tableScans.isEmpty() && "fail".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException("Queries without a usable index: " + tableScans);
+        }
+    }
+
+    record CheckedQuery(String name, String sql, Map<String, Object> args) {
+    }
+}
@@ -1,45 +1,107 @@
 package example.users;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
 
+import example.users.security.CachingDaoAuthenticationProvider;
+import example.users.security.CredentialCacheInvalidatingUserDetailsManager;
+import example.users.security.TimedPasswordEncoder;
+import example.users.security.VerifiedCredentialCache;
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 class SecurityConfig {
 
+   @Value("${user.security.auth-mode:basic}")
+   private String authMode;
+
+   @Bean
+   @Order(1)
+   @ConditionalOnProperty(name = "user.security.auth-mode", havingValue = "token")
+   SecurityFilterChain tokenEndpointFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/auth/token")
+            .authorizeHttpRequests(request -> request.anyRequest().authenticated())
+            .httpBasic(Customizer.withDefaults())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .csrf(csrf -> csrf.disable());
+       return http.build();
+   }
+
    @Bean 
-   SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+   SecurityFilterChain filterChain(HttpSecurity http, ObjectProvider<JwtAuthenticationConverter> jwtAuthenticationConverter) throws Exception {
         http
             .authorizeHttpRequests(request ->
             request
                     .requestMatchers("/users/**")
                     .hasRole("USER-OWNER")
+                    .requestMatchers("/actuator/health")
+                    .permitAll()
+                    .requestMatchers("/actuator/**")
+                    .hasRole("OPS")
             )
-            .httpBasic(Customizer.withDefaults())
             .csrf(csrf -> csrf.disable());
+
+        if ("token".equals(authMode)) {
+            http
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter.getObject())))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        } else {
+            http.httpBasic(Customizer.withDefaults());
+        }
        return http.build();
    }
 
    @Bean
-   PasswordEncoder passwordEncoder() {
-       return new BCryptPasswordEncoder();
+   PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+       return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
+   }
+
+   @Bean
+   VerifiedCredentialCache verifiedCredentialCache(
+        @Value("${user.security.credential-cache.maximum-size:10000}") long maximumSize,
+        @Value("${user.security.credential-cache.ttl:5m}") Duration ttl) {
+       return new VerifiedCredentialCache(maximumSize, ttl);
+   }
+
+   @Bean
+   AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+        VerifiedCredentialCache verifiedCredentialCache,
+        @Value("${user.security.credential-cache.enabled:true}") boolean credentialCacheEnabled) {
+       if (credentialCacheEnabled) {
+           return new CachingDaoAuthenticationProvider(userDetailsService, passwordEncoder, verifiedCredentialCache);
+       }
+       DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+       provider.setPasswordEncoder(passwordEncoder);
+       provider.setUserDetailsService(userDetailsService);
+       return provider;
    }
 
    @Bean
-  UserDetailsService testOnlyUsers(PasswordEncoder passwordEncoder) {
+  UserDetailsService testOnlyUsers(PasswordEncoder passwordEncoder, VerifiedCredentialCache verifiedCredentialCache) {
     org.springframework.security.core.userdetails.User.UserBuilder users = org.springframework.security.core.userdetails.User.builder();
    UserDetails admin = users
      .username("admin")
      .password(passwordEncoder.encode("abc123"))
-     .roles("USER-OWNER") // No roles for now
+     .roles("USER-OWNER", "OPS") // OPS: the actuator endpoints other than health
      .build();
     
     UserDetails darioOwnsNoUsers = users
@@ -53,6 +115,6 @@ class SecurityConfig {
       .password(passwordEncoder.encode("abc123"))
       .roles("USER-OWNER") // No roles for now
       .build();
-   return new InMemoryUserDetailsManager(admin, darioOwnsNoUsers, paris);
+   return new CredentialCacheInvalidatingUserDetailsManager(verifiedCredentialCache, admin, darioOwnsNoUsers, paris);
   }
 }
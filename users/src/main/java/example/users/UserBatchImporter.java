@@ -0,0 +1,153 @@
+package example.users;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import example.users.metrics.TimedValidator;
+
+import jakarta.validation.ConstraintViolation;
+
+/**
+ * Creates users in bulk. Each element is validated on its own, and the valid ones are written
+ * in JDBC batches of {@code user.batch.size} rows, one transaction per batch. A batch the database
+ * rejects is written again one row at a time, so a single bad row does not fail the others.
+ */
+@Component
+class UserBatchImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserBatchImporter.class);
+
+    private final UserRepository userRepository;
+
+    private final TimedValidator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    UserBatchImporter(UserRepository userRepository, TimedValidator validator, PlatformTransactionManager transactionManager,
+            @Value("${user.batch.size:500}") int batchSize) {
+        this.userRepository = userRepository;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Starts a bulk create for an owner.
+     *
+     * @param owner the owner of every user created by the batch
+     * @return the batch to add the request's elements to
+     */
+    Batch start(String owner) {
+        return new Batch(owner);
+    }
+
+    /**
+     * The elements of one bulk create request, added in request order. Not thread-safe.
+     */
+    final class Batch {
+
+        private final String owner;
+
+        private final List<BatchItemResult> results = new ArrayList<>();
+
+        private final List<User> pending = new ArrayList<>();
+
+        private final List<Integer> pendingIndexes = new ArrayList<>();
+
+        private Batch(String owner) {
+            this.owner = owner;
+        }
+
+        /**
+         * Validates a user and queues it for insertion, flushing the queue once it holds a full batch.
+         *
+         * @param newUser the user object containing the details of the new user
+         */
+        void add(User newUser) {
+            int index = results.size();
+            Map<String, String> errors = new HashMap<>();
+            for (ConstraintViolation<User> violation : validator.validate(newUser)) {
+                errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+            }
+
+            if (!errors.isEmpty()) {
+                results.add(BatchItemResult.invalid(index, errors));
+                return;
+            }
+
+            results.add(null);
+            pending.add(new User(null, newUser.getName(), newUser.getLastName(), newUser.getEmail(), newUser.getBirthday(), newUser.getPhoneNumber(), newUser.getAddress(), owner));
+            pendingIndexes.add(index);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Records an element that could not be read as a user.
+         *
+         * @param errors the reasons the element was rejected
+         */
+        void reject(Map<String, String> errors) {
+            results.add(BatchItemResult.invalid(results.size(), errors));
+        }
+
+        /**
+         * Writes the remaining queued users.
+         *
+         * @return the result of every element, in request order
+         */
+        List<BatchItemResult> finish() {
+            flush();
+            return results;
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            try {
+                List<Long> ids = transactionTemplate.execute(status -> userRepository.insertBatch(pending));
+                for (int i = 0; i < pendingIndexes.size(); i++) {
+                    int index = pendingIndexes.get(i);
+                    results.set(index, BatchItemResult.created(index, ids.get(i)));
+                }
+            } catch (DataAccessException e) {
+                log.debug("Batch of {} users failed, retrying them one at a time", pending.size(), e);
+                for (int i = 0; i < pendingIndexes.size(); i++) {
+                    insertOne(pendingIndexes.get(i), pending.get(i));
+                }
+            }
+
+            pending.clear();
+            pendingIndexes.clear();
+        }
+
+        /**
+         * Inserts a single user of a batch the database rejected, so only the rows it rejects fail.
+         * The cause is logged rather than returned, since it holds the SQL and the driver's message.
+         */
+        private void insertOne(int index, User user) {
+            try {
+                List<Long> ids = transactionTemplate.execute(status -> userRepository.insertBatch(List.of(user)));
+                results.set(index, BatchItemResult.created(index, ids.get(0)));
+            } catch (DataAccessException e) {
+                log.warn("Could not create element {} of a batch for {}", index, owner, e);
+                results.set(index, BatchItemResult.failed(index, "The user could not be created"));
+            }
+        }
+    }
+}
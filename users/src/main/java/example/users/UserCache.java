@@ -0,0 +1,92 @@
+package example.users;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Bounded, TTL-evicting read-through cache of users keyed by (owner, id).
+ * Writes must call {@link #invalidate(String, Long)}; missing users are not cached.
+ * Disabled with {@code user.cache.enabled=false}, in which case every lookup goes to the loader.
+ * <p>
+ * A miss runs the loader on the calling thread outside the cache's locks, so a virtual thread blocked
+ * on JDBC does not pin its carrier. Concurrent lookups of the same key wait for that one load.
+ */
+@Component
+class UserCache {
+
+    private final AsyncCache<Key, User> users;
+
+    UserCache(@Value("${user.cache.enabled:true}") boolean enabled,
+            @Value("${user.cache.maximum-size:10000}") long maximumSize,
+            @Value("${user.cache.ttl:60s}") Duration ttl) {
+        this.users = enabled
+            ? Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().buildAsync()
+            : null;
+    }
+
+    /**
+     * Returns the cached user, loading and caching it on a miss.
+     *
+     * @param owner the owner the user must belong to
+     * @param id the ID of the user
+     * @param loader the lookup run on a miss, returning null if there is no such user
+     * @return the user, or null if not found
+     */
+    User get(String owner, Long id, Supplier<User> loader) {
+        if (users == null) {
+            return loader.get();
+        }
+        CompletableFuture<User> load = new CompletableFuture<>();
+        CompletableFuture<User> user = users.get(new Key(owner, id), (key, executor) -> load);
+        if (user == load) {
+            try {
+                // A null or failed result is not kept by the cache
+                load.complete(loader.get());
+            } catch (RuntimeException e) {
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return user.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    void invalidate(String owner, Long id) {
+        if (users != null) {
+            users.synchronous().invalidate(new Key(owner, id));
+        }
+    }
+
+    boolean isEnabled() {
+        return users != null;
+    }
+
+    /**
+     * Exposes the underlying cache, for instance to bind its statistics to a metrics registry.
+     *
+     * @return the cache, or null when caching is disabled
+     */
+    Cache<?, ?> nativeCache() {
+        return users == null ? null : users.synchronous();
+    }
+
+    CacheStats stats() {
+        return users == null ? CacheStats.empty() : users.synchronous().stats();
+    }
+
+    private record Key(String owner, Long id) {
+    }
+}
@@ -1,31 +1,64 @@
 package example.users;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
 import example.exceptions.WrongDateParametersException;
+import example.users.datasource.ReplicaRead;
+import example.users.metrics.TimedValidator;
 
 import java.security.Principal;
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
 
 /**
@@ -35,26 +68,80 @@ import jakarta.validation.Valid;
 @RequestMapping("/users")
 public class UserController {
 
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    static final int DEFAULT_RANGE_PAGE_SIZE = 100;
+
+    static final int MAX_SEARCH_LENGTH = 50;
+
+    /**
+     * How far search results can be paged. Each page is read with OFFSET, so the database ranks and skips every
+     * earlier match; a client that needs more should search for a longer prefix.
+     */
+    static final int MAX_SEARCH_RESULTS = 10_000;
+
+    private static final String ANY_ETAG = "*";
+
+    private static final String WEAK_ETAG_PREFIX = "W/";
+
     private final UserRepository userRepository;
 
-    private UserController(UserRepository userRepository) {
+    private final ObjectMapper objectMapper;
+
+    private final ObjectMapper cborObjectMapper;
+
+    private final UserBatchImporter userBatchImporter;
+
+    private final TimedValidator validator;
+
+    private final UserCache userCache;
+
+    private final Clock clock;
+
+    private UserController(UserRepository userRepository, ObjectMapper objectMapper, MappingJackson2CborHttpMessageConverter cborConverter,
+            UserBatchImporter userBatchImporter, TimedValidator validator, UserCache userCache, Clock clock) {
         this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.cborObjectMapper = cborConverter.getObjectMapper();
+        this.userBatchImporter = userBatchImporter;
+        this.validator = validator;
+        this.userCache = userCache;
+        this.clock = clock;
     }
 
 /**
- * Retrieves a user by their ID.
+ * Retrieves a user by their ID. The response carries the user's version as a weak ETag and varies by Accept,
+ * and a matching If-None-Match is answered with 304 after a version-only lookup.
  *
  * @param requestedId the ID of the user to retrieve
+ * @param request the current request, used to evaluate If-None-Match
  * @param principal the principal object representing the currently authenticated user
- * @return a ResponseEntity containing the user if found, or a not found response if not found
+ * @return a ResponseEntity containing the user if found, a not modified response if the client's copy is current, or a not found response if not found
  */
+   @ReplicaRead
    @GetMapping("/{requestedId}")
-   private ResponseEntity<User> findById(@PathVariable Long requestedId, Principal principal){
+   private ResponseEntity<User> findById(@PathVariable Long requestedId, WebRequest request, Principal principal){
+
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Long version = userRepository.findVersionByIdAndOwner(requestedId, principal.getName());
+            if (version != null && request.checkNotModified(eTagOf(version))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+            }
+        }
     
         User userOptional = findUser(requestedId, principal);
 
         if(userOptional != null) {
-            return ResponseEntity.ok(userOptional);
+            return ResponseEntity.ok()
+                .eTag(eTagOf(userOptional.getVersion()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(userOptional);
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -66,65 +153,264 @@ public class UserController {
      * Retrieves a list of users based on the provided pagination parameters and the authenticated principal.
      *
      * @param pageable   the pagination parameters for retrieving the users
+     * @param count      whether to count the owner's users and return the total in the X-Total-Count header
      * @param principal  the authenticated principal representing the user
-     * @return           a ResponseEntity containing the list of users
+     * @return           a ResponseEntity containing the list of users, with an ETag derived from their IDs and versions
      */
+    @ReplicaRead
     @GetMapping
-    private ResponseEntity<List<User>> findAll(Pageable pageable, Principal principal) {
-    
-        Page<User> page = userRepository.findByOwner(
-            principal.getName(),
-            PageRequest.of(
-                pageable.getPageNumber(), 
-                pageable.getPageSize(), 
-                pageable.getSortOr(Sort.by(Sort.Direction.ASC, "name"))
-            )
+    private ResponseEntity<List<User>> findAll(Pageable pageable, @RequestParam(defaultValue = "true") boolean count, Principal principal) {
+
+        PageRequest pageRequest = PageRequest.of(
+            pageable.getPageNumber(), 
+            pageable.getPageSize(), 
+            pageable.getSortOr(Sort.by(Sort.Direction.ASC, "name"))
         );
 
-        return ResponseEntity.ok(page.getContent());
+        if (!count) {
+            Slice<User> slice = userRepository.findSliceByOwner(principal.getName(), pageRequest);
+            return ResponseEntity.ok()
+                .eTag(eTagOf(slice.getContent(), -1))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(slice.getContent());
+        }
+
+        Page<User> page = userRepository.findByOwner(principal.getName(), pageRequest);
+
+        return ResponseEntity.ok()
+            .header(TOTAL_COUNT_HEADER, String.valueOf(page.getTotalElements()))
+            .eTag(eTagOf(page.getContent(), page.getTotalElements()))
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(page.getContent());
           
     }
 
     /**
-     * Retrieves a list of users owned by the authenticated principal between the specified start and end dates.
+     * Retrieves a page of users ordered by name and ID, continuing after the given cursor.
+     * Seeks directly to the cursor position, so later pages cost the same as the first one.
+     *
+     * @param limit      the maximum number of users to return, at most {@value #MAX_PAGE_SIZE}
+     * @param cursor     the X-Next-Cursor header of the previous page, or null for the first page
+     * @param principal  the authenticated principal representing the user
+     * @return           a ResponseEntity containing the list of users and, if more users follow, an X-Next-Cursor header
+     * @throws IllegalArgumentException if the limit is out of range or the cursor is invalid
+     */
+    @ReplicaRead
+    @GetMapping(params = "limit")
+    private ResponseEntity<List<User>> findAllAfterCursor(@RequestParam int limit, @RequestParam(required = false) String cursor, Principal principal) {
+
+        checkLimit(limit);
+
+        List<User> users;
+        if (cursor == null) {
+            users = userRepository.findKeysetPageByOwner(principal.getName(), limit + 1);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            users = userRepository.findKeysetPageByOwnerAfter(principal.getName(), after.key(), after.id(), limit + 1);
+        }
+
+        if (users.size() <= limit) {
+            return ResponseEntity.ok()
+                .eTag(eTagOf(users, -1))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(users);
+        }
+
+        List<User> page = users.subList(0, limit);
+        User last = page.get(limit - 1);
+        return ResponseEntity.ok()
+            .header(NEXT_CURSOR_HEADER, new KeysetCursor(last.getName(), last.getId()).encode())
+            .eTag(eTagOf(page, -1))
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(page);
+    }
+
+    /**
+     * Searches the users of the authenticated principal whose name, last name or email starts with the query,
+     * ignoring case. Users with a field equal to the query are ranked first, followed by matches on the name,
+     * the last name and the email; ties are ordered by name, last name and ID.
+     *
+     * @param q          the prefix to search for, between 1 and {@value #MAX_SEARCH_LENGTH} characters
+     * @param pageable   the page and size of the results, at most {@value #MAX_PAGE_SIZE} users and within the first
+     *                   {@value #MAX_SEARCH_RESULTS} matches; any sort is ignored in favour of the ranking
+     * @param principal  the authenticated principal representing the user
+     * @return           a ResponseEntity containing the page of matching users, with an ETag derived from their IDs and versions
+     * @throws IllegalArgumentException if the query is blank or too long, the page too large or too deep
+     */
+    @ReplicaRead
+    @GetMapping("/search")
+    private ResponseEntity<List<User>> search(@RequestParam String q, Pageable pageable, Principal principal) {
+
+        String prefix = q.trim().toLowerCase(Locale.ROOT);
+        if (prefix.isEmpty() || prefix.length() > MAX_SEARCH_LENGTH) {
+            throw new IllegalArgumentException("q must be between 1 and " + MAX_SEARCH_LENGTH + " characters");
+        }
+        checkLimit(pageable.getPageSize());
+        if (pageable.getOffset() + pageable.getPageSize() > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("Only the first " + MAX_SEARCH_RESULTS + " matches can be paged through; search for a longer prefix");
+        }
+
+        List<User> users = userRepository.searchByOwner(
+            principal.getName(),
+            prefix,
+            prefix + Character.MAX_VALUE,
+            pageable.getPageSize(),
+            pageable.getOffset()
+        );
+
+        return ResponseEntity.ok()
+            .eTag(eTagOf(users, -1))
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(users);
+    }
+
+    /**
+     * Streams every user owned by the authenticated principal as newline-delimited JSON.
+     * Rows are written as they are read from the database, so memory use does not grow with the number of users.
+     *
+     * @param principal  the authenticated principal representing the user
+     * @return           a ResponseEntity streaming one JSON user per line, ordered by ID
+     */
+    @GetMapping(value = "/export", produces = NdjsonResponses.MEDIA_TYPE)
+    private ResponseEntity<StreamingResponseBody> export(Principal principal) {
+        String owner = principal.getName();
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(NdjsonResponses.MEDIA_TYPE))
+            .body(NdjsonResponses.ofUsers(objectMapper, sink -> userRepository.streamByOwner(owner, sink)));
+    }
+
+    /**
+     * Retrieves a page of users owned by the authenticated principal between the specified start and end dates,
+     * ordered by birthday and ID.
      *
      * @param startDate the start date of the range
      * @param endDate the end date of the range
+     * @param limit the maximum number of users to return, at most {@value #MAX_PAGE_SIZE}
+     * @param cursor the X-Next-Cursor header of the previous page, or null for the first page
      * @param principal the authenticated principal
-     * @return a ResponseEntity containing the list of users if found, or a not found response if the list is empty
-     * @throws IllegalArgumentException if the date format is invalid
+     * @return a ResponseEntity containing the list of users and, if more users follow, an X-Next-Cursor header,
+     *         or a not found response if the list is empty
+     * @throws IllegalArgumentException if the date format, the limit or the cursor is invalid
      * @throws WrongDateParametersException if the end date is before the start date
      */
+    @ReplicaRead
     @GetMapping("/{startDate}/{endDate}")
-    private ResponseEntity<List<User>> findByOwnerAndBetweenDates(@PathVariable LocalDate startDate, @PathVariable LocalDate endDate, Principal principal) {
+    private ResponseEntity<List<User>> findByOwnerAndBetweenDates(@PathVariable LocalDate startDate, @PathVariable LocalDate endDate,
+            @RequestParam(defaultValue = "" + DEFAULT_RANGE_PAGE_SIZE) int limit, @RequestParam(required = false) String cursor, Principal principal) {
     
-        LocalDate start;
-        LocalDate end;
-    
-        try {
-            start = LocalDate.parse(startDate.toString());
-            end = LocalDate.parse(endDate.toString());
-        } catch (DateTimeParseException e) {
-            throw new IllegalArgumentException("Invalid date format. Please use the format: yyyy-MM-dd", e);
-        }
+        checkDates(startDate, endDate);
+        checkLimit(limit);
 
-        if (endDate.isBefore(startDate)) {
-            throw new WrongDateParametersException("endDate must be after startDate");
+        List<User> list;
+        if (cursor == null) {
+            list = userRepository.findByOwnerAndBetweenDates(principal.getName(), startDate, endDate, limit + 1);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            list = userRepository.findByOwnerAndBetweenDatesAfter(
+                principal.getName(),
+                startDate,
+                endDate,
+                parseCursorDate(after),
+                after.id(),
+                limit + 1
+            );
         }
-        List<User> list = userRepository.findByOwnerAndBetweenDates(
-            principal.getName(),
-            startDate,
-            endDate
-        );
 
         if (list.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
-        return ResponseEntity.ok(list);
+        if (list.size() <= limit) {
+            return ResponseEntity.ok()
+                .eTag(eTagOf(list, -1))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(list);
+        }
+
+        List<User> page = list.subList(0, limit);
+        User last = page.get(limit - 1);
+        return ResponseEntity.ok()
+            .header(NEXT_CURSOR_HEADER, new KeysetCursor(last.getBirthday().toString(), last.getId()).encode())
+            .eTag(eTagOf(page, -1))
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(page);
           
     }
 
+    /**
+     * Retrieves a page of users owned by the authenticated principal whose birthday comes up within the given number
+     * of days, today included, whatever their year of birth. Users are ordered by how soon their birthday comes,
+     * continuing into next year when the window crosses the end of this one, and then by ID.
+     *
+     * @param days the number of days to look ahead, at most {@value BirthdayWindow#MAX_DAYS}
+     * @param limit the maximum number of users to return, at most {@value #MAX_PAGE_SIZE}
+     * @param cursor the X-Next-Cursor header of the previous page, or null for the first page
+     * @param principal the authenticated principal
+     * @return a ResponseEntity containing the list of users, possibly empty, and an X-Next-Cursor header if more users follow
+     * @throws IllegalArgumentException if the number of days, the limit or the cursor is invalid
+     */
+    @ReplicaRead
+    @GetMapping("/birthdays")
+    private ResponseEntity<List<User>> findUpcomingBirthdays(@RequestParam(defaultValue = "30") int days,
+            @RequestParam(defaultValue = "" + DEFAULT_RANGE_PAGE_SIZE) int limit, @RequestParam(required = false) String cursor, Principal principal) {
+
+        checkLimit(limit);
+
+        BirthdayWindow window = BirthdayWindow.of(LocalDate.now(clock), days);
+        if (cursor != null) {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            window = window.after(parseCursorDay(after), after.id());
+        }
+
+        List<User> users = userRepository.findUpcomingBirthdaysByOwner(
+            principal.getName(),
+            window.firstStart(),
+            window.firstEnd(),
+            window.firstAfterId(),
+            window.secondStart(),
+            window.secondEnd(),
+            window.secondAfterId(),
+            limit + 1
+        );
+
+        if (users.size() <= limit) {
+            return ResponseEntity.ok()
+                .eTag(eTagOf(users, -1))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(users);
+        }
+
+        List<User> page = users.subList(0, limit);
+        User last = page.get(limit - 1);
+        return ResponseEntity.ok()
+            .header(NEXT_CURSOR_HEADER, new KeysetCursor(String.valueOf(BirthdayWindow.dayOf(last.getBirthday())), last.getId()).encode())
+            .eTag(eTagOf(page, -1))
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(page);
+    }
+
+    /**
+     * Streams every user owned by the authenticated principal between the specified start and end dates
+     * as newline-delimited JSON, ordered by birthday and ID.
+     *
+     * @param startDate the start date of the range
+     * @param endDate the end date of the range
+     * @param principal the authenticated principal
+     * @return a ResponseEntity streaming one JSON user per line
+     * @throws IllegalArgumentException if the date format is invalid
+     * @throws WrongDateParametersException if the end date is before the start date
+     */
+    @GetMapping(value = "/{startDate}/{endDate}", params = "stream=true", produces = NdjsonResponses.MEDIA_TYPE)
+    private ResponseEntity<StreamingResponseBody> streamByOwnerAndBetweenDates(@PathVariable LocalDate startDate, @PathVariable LocalDate endDate, Principal principal) {
+
+        checkDates(startDate, endDate);
+
+        String owner = principal.getName();
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(NdjsonResponses.MEDIA_TYPE))
+            .body(NdjsonResponses.ofUsers(objectMapper, sink -> userRepository.streamByOwnerAndBetweenDates(owner, startDate, endDate, sink)));
+    }
+
 /**
  * Creates a new user.
  *
@@ -148,36 +434,193 @@ public class UserController {
         return ResponseEntity.created(locationOfNewUser).build();
    }
 
+/**
+ * Creates new users from a JSON or CBOR array, reading the request body one element at a time.
+ * Elements that cannot be read or validated are reported without preventing the others from being created.
+ * If the body stops being a well-formed array, the elements after that point are reported as one rejection.
+ *
+ * @param body The request body, an array of users.
+ * @param contentType The media type of the body.
+ * @param principal The Principal object representing the currently authenticated user.
+ * @return A ResponseEntity containing the result of every element read, in request order.
+ * @throws IOException if the request body cannot be read
+ * @throws IllegalArgumentException if the body is not an array
+ */
+   @PostMapping(value = "/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+   private ResponseEntity<List<BatchItemResult>> createUsers(InputStream body, @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            Principal principal) throws IOException {
+
+        ObjectMapper mapper = MediaType.APPLICATION_CBOR.isCompatibleWith(MediaType.parseMediaType(contentType)) ? cborObjectMapper : objectMapper;
+        UserBatchImporter.Batch batch = userBatchImporter.start(principal.getName());
+
+        try (JsonParser parser = mapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("The request body must be an array of users");
+            }
+            try {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    JsonNode element = parser.readValueAsTree();
+                    try {
+                        batch.add(mapper.treeToValue(element, User.class));
+                    } catch (JsonProcessingException e) {
+                        batch.reject(Map.of("message", e.getOriginalMessage()));
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                batch.reject(Map.of("message", e.getOriginalMessage()));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("The request body must be an array of users");
+        }
+
+        return ResponseEntity.ok(batch.finish());
+   }
+
+/**
+ * Creates new users from newline-delimited JSON, reading the request body one line at a time.
+ * Lines that cannot be read or validated are reported without preventing the others from being created.
+ *
+ * @param body The request body, one JSON user per line.
+ * @param principal The Principal object representing the currently authenticated user.
+ * @return A ResponseEntity containing the result of every non-blank line, in request order.
+ * @throws IOException if the request body cannot be read
+ */
+   @PostMapping(value = "/batch", consumes = NdjsonResponses.MEDIA_TYPE)
+   private ResponseEntity<List<BatchItemResult>> createUsersFromNdjson(InputStream body, Principal principal) throws IOException {
+
+        UserBatchImporter.Batch batch = userBatchImporter.start(principal.getName());
+        ObjectReader reader = objectMapper.readerFor(User.class);
+
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(reader.readValue(line));
+            } catch (JsonProcessingException e) {
+                batch.reject(Map.of("message", e.getOriginalMessage()));
+            }
+        }
+
+        return ResponseEntity.ok(batch.finish());
+   }
+
 /**
  * Updates a user with the provided information.
+ * With an If-Match header, the update only happens if the user still has the version in the ETag.
  *
  * @param requestedId   The ID of the user to be updated.
  * @param updatedUser   The updated user object containing the new information.
+ * @param ifMatch       The ETag the client last read, or null to update unconditionally.
  * @param principal     The principal object representing the currently authenticated user.
  * @return              A ResponseEntity with no content if the user was successfully updated,
+ *                      a ResponseEntity with a precondition failed status if the user changed since the client read it
+ *                      or If-Match is * and the user was not found,
  *                      or a ResponseEntity with a not found status if the user was not found.
  */
    @PutMapping("/{requestedId}")
-   private ResponseEntity<Void> updateUser(@PathVariable Long requestedId, @RequestBody User updatedUser, Principal principal){
+   private ResponseEntity<Void> updateUser(@PathVariable Long requestedId, @RequestBody User updatedUser,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, Principal principal){
+
+        Long expectedVersion = versionOf(ifMatch);
+        boolean anyVersion = ifMatch != null && ANY_ETAG.equals(ifMatch.trim());
+        if (ifMatch != null && !anyVersion && expectedVersion == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
     
-        User userOptional = findUser(requestedId, principal);
+        int updated;
+        if (expectedVersion == null) {
+            updated = userRepository.updateByIdAndOwner(
+                requestedId,
+                principal.getName(),
+                updatedUser.getName(),
+                updatedUser.getLastName(),
+                updatedUser.getEmail(),
+                updatedUser.getBirthday(),
+                updatedUser.getPhoneNumber(),
+                updatedUser.getAddress()
+            );
+        } else {
+            updated = userRepository.updateByIdAndOwnerAndVersion(
+                requestedId,
+                principal.getName(),
+                updatedUser.getName(),
+                updatedUser.getLastName(),
+                updatedUser.getEmail(),
+                updatedUser.getBirthday(),
+                updatedUser.getPhoneNumber(),
+                updatedUser.getAddress(),
+                expectedVersion
+            );
+        }
+        userCache.invalidate(principal.getName(), requestedId);
 
-        if(userOptional != null) {
-            User user = userOptional;
-            user.setName(updatedUser.getName());
-            user.setLastName(updatedUser.getLastName());
-            user.setEmail(updatedUser.getEmail());
-            user.setBirthday(updatedUser.getBirthday());
-            user.setPhoneNumber(updatedUser.getPhoneNumber());
-            user.setAddress(updatedUser.getAddress());
+        if(updated > 0) {
+            return ResponseEntity.noContent().build();
+        } else if (anyVersion) {
+            // If-Match: * only holds for a user that exists, and the update found none
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } else if (expectedVersion != null && userRepository.existsByIdAndOwner(requestedId, principal.getName())) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+        
+   }
 
-            userRepository.save(user);
+/**
+ * Partially updates a user with a JSON Merge Patch. Only the supplied fields are validated and written.
+ * With an If-Match header, the update only happens if the user still has the version in the ETag.
+ *
+ * @param requestedId   The ID of the user to be updated.
+ * @param patch         The merge patch; a field set to null is cleared.
+ * @param ifMatch       The ETag the client last read, or null to update unconditionally.
+ * @param principal     The principal object representing the currently authenticated user.
+ * @return              A ResponseEntity with no content if the user was successfully updated,
+ *                      a ResponseEntity with a precondition failed status if the user changed since the client read it
+ *                      or If-Match is * and the user was not found,
+ *                      or a ResponseEntity with a not found status if the user was not found.
+ * @throws IllegalArgumentException if the patch is not an object or names a field that cannot be changed
+ * @throws ConstraintViolationException if a supplied field is invalid
+ */
+   @PatchMapping(value = "/{requestedId}", consumes = { UserPatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+   private ResponseEntity<Void> patchUser(@PathVariable Long requestedId, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, Principal principal){
+
+        UserPatch userPatch = UserPatch.from(patch, objectMapper, validator);
+
+        Long expectedVersion = versionOf(ifMatch);
+        boolean anyVersion = ifMatch != null && ANY_ETAG.equals(ifMatch.trim());
+        if (ifMatch != null && !anyVersion && expectedVersion == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
 
+        if (userPatch.isEmpty()) {
+            Long currentVersion = userRepository.findVersionByIdAndOwner(requestedId, principal.getName());
+            if (currentVersion == null) {
+                return anyVersion ? ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build() : ResponseEntity.notFound().build();
+            }
+            if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
             return ResponseEntity.noContent().build();
+        }
+
+        int updated = userRepository.patchByIdAndOwner(requestedId, principal.getName(), userPatch, expectedVersion);
+        userCache.invalidate(principal.getName(), requestedId);
+
+        if(updated > 0) {
+            return ResponseEntity.noContent().build();
+        } else if (anyVersion) {
+            // If-Match: * only holds for a user that exists, and the update found none
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } else if (expectedVersion != null && userRepository.existsByIdAndOwner(requestedId, principal.getName())) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         } else {
             return ResponseEntity.notFound().build();
         }
-        
    }
 
 /**
@@ -189,8 +632,9 @@ public class UserController {
  */
    @DeleteMapping("/{requestedId}")
     private ResponseEntity<Void> deleteUser(@PathVariable Long requestedId, Principal principal){
-        if(userRepository.existsByIdAndOwner(requestedId, principal.getName())) {
-            userRepository.deleteById(requestedId);
+        int deleted = userRepository.deleteByIdAndOwner(requestedId, principal.getName());
+        userCache.invalidate(principal.getName(), requestedId);
+        if(deleted > 0) {
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
@@ -201,13 +645,141 @@ public class UserController {
     }
 
 /**
- * Finds a user with the specified ID and owner.
+ * Builds the ETag of a single user from its version. It is weak because the JSON and CBOR representations of one
+ * version are equivalent but differ byte for byte.
+ *
+ * @param version the version of the user
+ * @return the weak ETag
+ */
+   static String eTagOf(Long version) {
+        return WEAK_ETAG_PREFIX + "\"" + version + "\"";
+   }
+
+/**
+ * Builds the weak ETag of a list of users from a SHA-256 digest of their IDs and versions, so any change to a listed
+ * user changes it. The digest is truncated to 128 bits, which keeps collisions between pages out of reach.
+ *
+ * @param users the users in the response
+ * @param total the total reported alongside the list, or -1 if none
+ * @return the weak ETag
+ */
+   static String eTagOf(List<User> users, long total) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * 2);
+        buffer.putLong(users.size()).putLong(total);
+        digest.update(buffer.array());
+        for (User user : users) {
+            buffer.clear();
+            buffer.putLong(user.getId()).putLong(user.getVersion());
+            digest.update(buffer.array());
+        }
+        byte[] hash = Arrays.copyOf(digest.digest(), 16);
+        return WEAK_ETAG_PREFIX + "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+   }
+
+/**
+ * Reads the version from an If-Match header holding one version ETag. The weak ETags of {@link #eTagOf(Long)} are
+ * accepted as well as their strong form: they name a version of the user, not the bytes of one representation,
+ * and the update statement compares that version with the stored one.
+ *
+ * @param ifMatch the If-Match header, or null
+ * @return the version, or null if the header is absent, a wildcard or not a version ETag
+ */
+   private static Long versionOf(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        if (eTag.startsWith(WEAK_ETAG_PREFIX)) {
+            eTag = eTag.substring(WEAK_ETAG_PREFIX.length());
+        }
+        if (eTag.length() < 3 || eTag.charAt(0) != '"' || eTag.charAt(eTag.length() - 1) != '"') {
+            return null;
+        }
+        try {
+            return Long.parseLong(eTag.substring(1, eTag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+   }
+
+/**
+ * Checks that a range of dates is well formed.
+ *
+ * @param startDate the start date of the range
+ * @param endDate the end date of the range
+ * @throws IllegalArgumentException if the date format is invalid
+ * @throws WrongDateParametersException if the end date is before the start date
+ */
+   private void checkDates(LocalDate startDate, LocalDate endDate) {
+        try {
+            LocalDate.parse(startDate.toString());
+            LocalDate.parse(endDate.toString());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format. Please use the format: yyyy-MM-dd", e);
+        }
+
+        if (endDate.isBefore(startDate)) {
+            throw new WrongDateParametersException("endDate must be after startDate");
+        }
+   }
+
+/**
+ * Reads the birthday held by a keyset cursor.
+ *
+ * @param cursor the decoded cursor
+ * @return the birthday of the last user of the previous page
+ * @throws IllegalArgumentException if the cursor does not hold a date
+ */
+   private LocalDate parseCursorDate(KeysetCursor cursor) {
+        try {
+            return LocalDate.parse(cursor.key());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+   }
+
+/**
+ * Reads the birthday, as {@code month * 100 + day}, held by a keyset cursor of upcoming birthdays.
+ *
+ * @param cursor the decoded cursor
+ * @return the birthday of the last user of the previous page
+ * @throws IllegalArgumentException if the cursor does not hold a day of the year
+ */
+   private int parseCursorDay(KeysetCursor cursor) {
+        try {
+            return Integer.parseInt(cursor.key());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+   }
+
+/**
+ * Checks that a requested page size is between 1 and {@value #MAX_PAGE_SIZE}.
+ *
+ * @param limit the requested page size
+ * @throws IllegalArgumentException if the limit is out of range
+ */
+   private void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+   }
+
+/**
+ * Finds a user with the specified ID and owner, through the user cache.
  *
  * @param requestedId the ID of the user to find
  * @param principal the principal object representing the owner of the user
  * @return the user with the specified ID and owner, or null if not found
  */
    private User findUser(Long requestedId, Principal principal) {
-        return userRepository.findByIdAndOwner(requestedId, principal.getName());
+        String owner = principal.getName();
+        return userCache.get(owner, requestedId, () -> userRepository.findByIdAndOwner(requestedId, owner));
    }
 }
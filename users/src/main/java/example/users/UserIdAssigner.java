@@ -0,0 +1,36 @@
+package example.users;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.relational.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+import example.users.datasource.SnowflakeIdGenerator;
+
+/**
+ * Gives new users an ID from the {@link SnowflakeIdGenerator} when sharding is enabled, since identity values
+ * of different shards collide. Otherwise IDs are left to the identity column.
+ */
+@Component
+class UserIdAssigner implements BeforeConvertCallback<User> {
+
+    private final SnowflakeIdGenerator idGenerator;
+
+    UserIdAssigner(ObjectProvider<SnowflakeIdGenerator> idGenerator) {
+        this.idGenerator = idGenerator.getIfAvailable();
+    }
+
+    /**
+     * @return whether IDs are assigned here rather than by the database
+     */
+    boolean assignsIds() {
+        return idGenerator != null;
+    }
+
+    @Override
+    public User onBeforeConvert(User user) {
+        if (idGenerator != null && user.getId() == null) {
+            user.setId(idGenerator.nextId());
+        }
+        return user;
+    }
+}
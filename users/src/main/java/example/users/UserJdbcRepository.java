@@ -0,0 +1,51 @@
+package example.users;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/**
+ * Queries on the "USER" table that need plain JDBC rather than Spring Data JDBC's aggregate mapping.
+ */
+interface UserJdbcRepository {
+
+    /**
+     * Streams every user of an owner, ordered by ID, from a lazily executed query without collecting them.
+     * Each row is handed over as it is read, without being mapped to a {@link User}.
+     *
+     * @param owner the owner whose users are streamed
+     * @param handler the handler run for each row, in order
+     */
+    void streamByOwner(String owner, RowCallbackHandler handler);
+
+    /**
+     * Streams the users of an owner born between two dates, ordered by birthday and ID, from a lazily executed query.
+     *
+     * @param owner the owner whose users are streamed
+     * @param startDate the first birthday included
+     * @param endDate the last birthday included
+     * @param handler the handler run for each row, in order
+     */
+    void streamByOwnerAndBetweenDates(String owner, LocalDate startDate, LocalDate endDate, RowCallbackHandler handler);
+
+    /**
+     * Inserts new users with a single JDBC batch.
+     *
+     * @param users the users to insert, with their owner set
+     * @return the generated IDs, in the order of the users
+     */
+    List<Long> insertBatch(List<User> users);
+
+    /**
+     * Updates only the columns supplied by a patch, if the user exists, belongs to the owner
+     * and, when given, still has the expected version.
+     *
+     * @param id the ID of the user to update
+     * @param owner the owner the user must belong to
+     * @param patch the columns to change, not empty
+     * @param expectedVersion the version the user must have, or null to update any version
+     * @return the number of updated rows, 0 or 1
+     */
+    int patchByIdAndOwner(Long id, String owner, UserPatch patch, Long expectedVersion);
+}
@@ -0,0 +1,134 @@
+package example.users;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class UserJdbcRepositoryImpl implements UserJdbcRepository {
+
+    static final String STREAM_BY_OWNER = "SELECT * FROM \"USER\" WHERE OWNER = :owner ORDER BY ID";
+
+    static final String STREAM_BY_OWNER_AND_BETWEEN_DATES =
+        "SELECT * FROM \"USER\" WHERE OWNER = :owner AND BIRTHDAY BETWEEN :startDate AND :endDate ORDER BY BIRTHDAY, ID";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate streamingTemplate;
+
+    private final TransactionTemplate streamingTransaction;
+
+    private final UserIdAssigner idAssigner;
+
+    UserJdbcRepositoryImpl(DataSource dataSource, PlatformTransactionManager transactionManager,
+            @Value("${user.export.fetch-size:500}") int fetchSize, UserIdAssigner idAssigner) {
+        this.idAssigner = idAssigner;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        JdbcTemplate streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        streamingJdbcTemplate.setFetchSize(fetchSize);
+        this.streamingTemplate = new NamedParameterJdbcTemplate(streamingJdbcTemplate);
+        this.streamingTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void streamByOwner(String owner, RowCallbackHandler handler) {
+        streamLazily(STREAM_BY_OWNER, Map.of("owner", owner), handler);
+    }
+
+    @Override
+    public void streamByOwnerAndBetweenDates(String owner, LocalDate startDate, LocalDate endDate, RowCallbackHandler handler) {
+        streamLazily(STREAM_BY_OWNER_AND_BETWEEN_DATES, Map.of("owner", owner, "startDate", startDate, "endDate", endDate), handler);
+    }
+
+    /**
+     * Runs a query with H2's lazy query execution switched on for its session, so rows are produced as they are read
+     * instead of the whole result being built, in memory or a temporary file, before the first one is returned.
+     * The setting is switched off again before the connection goes back to the pool. The fetch size only applies to
+     * connections to an H2 server, where it sets the rows sent per round trip.
+     */
+    private void streamLazily(String sql, Map<String, ?> parameters, RowCallbackHandler handler) {
+        streamingTransaction.executeWithoutResult(status -> {
+            JdbcTemplate session = streamingTemplate.getJdbcTemplate();
+            session.execute("SET LAZY_QUERY_EXECUTION TRUE");
+            try {
+                streamingTemplate.query(sql, parameters, handler);
+            } finally {
+                session.execute("SET LAZY_QUERY_EXECUTION FALSE");
+            }
+        });
+    }
+
+    @Override
+    public List<Long> insertBatch(List<User> users) {
+        if (idAssigner.assignsIds()) {
+            users.forEach(idAssigner::onBeforeConvert);
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO \"USER\" (ID, NAME, LAST_NAME, EMAIL, BIRTHDAY, PHONE_NUMBER, ADDRESS, OWNER) "
+                    + "VALUES (:id, :name, :lastName, :email, :birthday, :phoneNumber, :address, :owner)",
+                SqlParameterSourceUtils.createBatch(users));
+            return users.stream().map(User::getId).toList();
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO \"USER\" (NAME, LAST_NAME, EMAIL, BIRTHDAY, PHONE_NUMBER, ADDRESS, OWNER) "
+                + "VALUES (:name, :lastName, :email, :birthday, :phoneNumber, :address, :owner)",
+            SqlParameterSourceUtils.createBatch(users),
+            keyHolder,
+            new String[] { "ID" });
+
+        return keyHolder.getKeyList().stream()
+            .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+            .toList();
+    }
+
+    @Override
+    public int patchByIdAndOwner(Long id, String owner, UserPatch patch, Long expectedVersion) {
+        StringJoiner assignments = new StringJoiner(", ");
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("id", id)
+            .addValue("owner", owner);
+        patch.values().forEach((fieldName, value) -> {
+            assignments.add(UserPatch.COLUMNS.get(fieldName) + " = :" + fieldName);
+            parameters.addValue(fieldName, value);
+        });
+        assignments.add("VERSION = VERSION + 1");
+
+        String sql = "UPDATE \"USER\" SET " + assignments + " WHERE ID = :id AND OWNER = :owner";
+        if (expectedVersion != null) {
+            sql += " AND VERSION = :version";
+            parameters.addValue("version", expectedVersion);
+        }
+
+        return jdbcTemplate.update(sql, parameters);
+    }
+
+    static User mapUser(ResultSet resultSet) throws SQLException {
+        User user = new User(
+            resultSet.getLong("ID"),
+            resultSet.getString("NAME"),
+            resultSet.getString("LAST_NAME"),
+            resultSet.getString("EMAIL"),
+            resultSet.getObject("BIRTHDAY", LocalDate.class),
+            resultSet.getString("PHONE_NUMBER"),
+            resultSet.getString("ADDRESS"),
+            resultSet.getString("OWNER"));
+        user.setVersion(resultSet.getLong("VERSION"));
+        return user;
+    }
+}
@@ -0,0 +1,117 @@
+package example.users;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import example.users.metrics.TimedValidator;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+
+/**
+ * A JSON Merge Patch (RFC 7396) of a user, holding only the fields the client supplied.
+ */
+final class UserPatch {
+
+    static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    /**
+     * The fields a patch may change, mapped to their columns.
+     */
+    static final Map<String, String> COLUMNS;
+
+    static {
+        Map<String, String> columns = new LinkedHashMap<>();
+        columns.put("name", "NAME");
+        columns.put("lastName", "LAST_NAME");
+        columns.put("email", "EMAIL");
+        columns.put("birthday", "BIRTHDAY");
+        columns.put("phoneNumber", "PHONE_NUMBER");
+        columns.put("address", "ADDRESS");
+        COLUMNS = Collections.unmodifiableMap(columns);
+    }
+
+    private final Map<String, Object> values;
+
+    private UserPatch(Map<String, Object> values) {
+        this.values = values;
+    }
+
+    /**
+     * Reads a merge patch and validates each supplied field against the {@link User} constraints.
+     *
+     * @param patch the merge patch document
+     * @param objectMapper the mapper used to convert the supplied fields
+     * @param validator the validator used to check the supplied fields
+     * @return the patch
+     * @throws IllegalArgumentException if the document is not an object, names a field that cannot be changed, or has a value of the wrong type
+     * @throws ConstraintViolationException if a supplied field breaks a constraint
+     */
+    static UserPatch from(JsonNode patch, ObjectMapper objectMapper, TimedValidator validator) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("A merge patch must be a JSON object");
+        }
+
+        Iterator<String> fieldNames = patch.fieldNames();
+        while (fieldNames.hasNext()) {
+            String fieldName = fieldNames.next();
+            if (!COLUMNS.containsKey(fieldName)) {
+                throw new IllegalArgumentException("Field cannot be patched: " + fieldName);
+            }
+        }
+
+        User patched;
+        try {
+            patched = objectMapper.treeToValue(patch, User.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid merge patch: " + e.getOriginalMessage(), e);
+        }
+
+        Map<String, Object> values = new HashMap<>();
+        Set<ConstraintViolation<User>> violations = new HashSet<>();
+        patch.fieldNames().forEachRemaining(fieldName -> {
+            violations.addAll(validator.validateProperty(patched, fieldName));
+            values.put(fieldName, valueOf(patched, fieldName));
+        });
+
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+
+        return new UserPatch(values);
+    }
+
+    /**
+     * The supplied fields and their new values, where null clears the column.
+     *
+     * @return the new values keyed by field name
+     */
+    Map<String, Object> values() {
+        return values;
+    }
+
+    boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    private static Object valueOf(User user, String fieldName) {
+        return switch (fieldName) {
+            case "name" -> user.getName();
+            case "lastName" -> user.getLastName();
+            case "email" -> user.getEmail();
+            case "birthday" -> user.getBirthday();
+            case "phoneNumber" -> user.getPhoneNumber();
+            case "address" -> user.getAddress();
+            default -> throw new IllegalArgumentException("Field cannot be patched: " + fieldName);
+        };
+    }
+}
@@ -9,22 +9,79 @@ import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jdbc.repository.query.Modifying;
 import org.springframework.data.jdbc.repository.query.Query;
 
 @Repository
-interface UserRepository extends CrudRepository<User, Long>, PagingAndSortingRepository<User, Long> {
+interface UserRepository extends CrudRepository<User, Long>, PagingAndSortingRepository<User, Long>, UserJdbcRepository {
 
     User findByIdAndOwner(Long id, String owner);
 
     Page<User> findByOwner(String owner, PageRequest pageRequest);
 
+    Slice<User> findSliceByOwner(String owner, Pageable pageable);
+
     boolean existsByIdAndOwner(Long id, String owner);
 
 
-    @Query("SELECT * FROM \"USER\" WHERE birthday BETWEEN :startDate AND :endDate AND owner = :owner")
-    List<User> findByOwnerAndBetweenDates(@Param("owner") String owner, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    @Query("SELECT * FROM \"USER\" WHERE birthday BETWEEN :startDate AND :endDate AND owner = :owner ORDER BY birthday, id LIMIT :limit")
+    List<User> findByOwnerAndBetweenDates(@Param("owner") String owner, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("limit") int limit);
+
+    @Query("SELECT * FROM \"USER\" WHERE birthday BETWEEN :startDate AND :endDate AND owner = :owner AND birthday >= :afterBirthday AND (birthday > :afterBirthday OR id > :afterId) ORDER BY birthday, id LIMIT :limit")
+    List<User> findByOwnerAndBetweenDatesAfter(@Param("owner") String owner, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("afterBirthday") LocalDate afterBirthday, @Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Query("SELECT version FROM \"USER\" WHERE id = :id AND owner = :owner")
+    Long findVersionByIdAndOwner(@Param("id") Long id, @Param("owner") String owner);
+
+    @Modifying
+    @Query("UPDATE \"USER\" SET name = :name, last_name = :lastName, email = :email, birthday = :birthday, phone_number = :phoneNumber, address = :address, version = version + 1 WHERE id = :id AND owner = :owner")
+    int updateByIdAndOwner(@Param("id") Long id, @Param("owner") String owner, @Param("name") String name, @Param("lastName") String lastName, @Param("email") String email, @Param("birthday") LocalDate birthday, @Param("phoneNumber") String phoneNumber, @Param("address") String address);
+
+    @Modifying
+    @Query("UPDATE \"USER\" SET name = :name, last_name = :lastName, email = :email, birthday = :birthday, phone_number = :phoneNumber, address = :address, version = version + 1 WHERE id = :id AND owner = :owner AND version = :version")
+    int updateByIdAndOwnerAndVersion(@Param("id") Long id, @Param("owner") String owner, @Param("name") String name, @Param("lastName") String lastName, @Param("email") String email, @Param("birthday") LocalDate birthday, @Param("phoneNumber") String phoneNumber, @Param("address") String address, @Param("version") long version);
+
+    @Modifying
+    @Query("DELETE FROM \"USER\" WHERE id = :id AND owner = :owner")
+    int deleteByIdAndOwner(@Param("id") Long id, @Param("owner") String owner);
+
+    @Query("SELECT * FROM \"USER\" WHERE owner = :owner ORDER BY name, id LIMIT :limit")
+    List<User> findKeysetPageByOwner(@Param("owner") String owner, @Param("limit") int limit);
+
+    @Query("SELECT * FROM \"USER\" WHERE owner = :owner AND name >= :name AND (name > :name OR id > :id) ORDER BY name, id LIMIT :limit")
+    List<User> findKeysetPageByOwnerAfter(@Param("owner") String owner, @Param("name") String name, @Param("id") long id, @Param("limit") int limit);
 
+    /**
+     * Finds the owner's users whose name, last name or email starts with a lowercase prefix. Each column is matched
+     * as a range of its lowercased copy, from the prefix up to {@code prefixEnd}, so every branch is an index range scan.
+     * Users with a column equal to the prefix come first, then name, last name and email matches.
+     */
+    @Query("""
+        SELECT * FROM "USER" WHERE owner = :owner AND id IN (
+            SELECT id FROM "USER" WHERE owner = :owner AND name_lc >= :prefix AND name_lc < :prefixEnd
+            UNION SELECT id FROM "USER" WHERE owner = :owner AND last_name_lc >= :prefix AND last_name_lc < :prefixEnd
+            UNION SELECT id FROM "USER" WHERE owner = :owner AND email_lc >= :prefix AND email_lc < :prefixEnd)
+        ORDER BY CASE
+            WHEN name_lc = :prefix OR last_name_lc = :prefix OR email_lc = :prefix THEN 0
+            WHEN name_lc >= :prefix AND name_lc < :prefixEnd THEN 1
+            WHEN last_name_lc >= :prefix AND last_name_lc < :prefixEnd THEN 2
+            ELSE 3 END, name_lc, last_name_lc, id
+        LIMIT :limit OFFSET :offset""")
+    List<User> searchByOwner(@Param("owner") String owner, @Param("prefix") String prefix, @Param("prefixEnd") String prefixEnd, @Param("limit") int limit, @Param("offset") long offset);
 
+    /**
+     * Finds the owner's users whose birthday falls within a {@link BirthdayWindow}, in the order the birthdays come up.
+     */
+    @Query("""
+        SELECT * FROM (
+            SELECT u.*, 0 AS lap FROM "USER" u WHERE owner = :owner AND birthday_doy BETWEEN :firstStart AND :firstEnd AND (birthday_doy > :firstStart OR id > :firstAfterId)
+            UNION ALL
+            SELECT u.*, 1 AS lap FROM "USER" u WHERE owner = :owner AND birthday_doy BETWEEN :secondStart AND :secondEnd AND (birthday_doy > :secondStart OR id > :secondAfterId)
+        ) AS upcoming
+        ORDER BY lap, birthday_doy, id LIMIT :limit""")
+    List<User> findUpcomingBirthdaysByOwner(@Param("owner") String owner, @Param("firstStart") int firstStart, @Param("firstEnd") int firstEnd, @Param("firstAfterId") long firstAfterId, @Param("secondStart") int secondStart, @Param("secondEnd") int secondEnd, @Param("secondAfterId") long secondAfterId, @Param("limit") int limit);
 
     
 }
@@ -1,7 +1,10 @@
 package example.users;
 
+import java.time.Clock;
+
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
 
 @SpringBootApplication
 public class UsersApplication {
@@ -10,4 +13,12 @@ public class UsersApplication {
 		SpringApplication.run(UsersApplication.class, args);
 	}
 
+	/**
+	 * The clock "today" is read from, replaced by a fixed one in tests.
+	 */
+	@Bean
+	Clock clock() {
+		return Clock.systemDefaultZone();
+	}
+
 }
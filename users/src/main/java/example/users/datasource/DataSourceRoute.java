@@ -0,0 +1,27 @@
+package example.users.datasource;
+
+/**
+ * The database the current thread's queries go to. Queries go to the primary unless the thread is handling
+ * a {@link ReplicaRead} request, and always do when no replica is configured.
+ */
+public enum DataSourceRoute {
+
+    PRIMARY,
+
+    REPLICA;
+
+    private static final ThreadLocal<DataSourceRoute> CURRENT = new ThreadLocal<>();
+
+    static DataSourceRoute current() {
+        DataSourceRoute route = CURRENT.get();
+        return route == null ? PRIMARY : route;
+    }
+
+    static void set(DataSourceRoute route) {
+        CURRENT.set(route);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
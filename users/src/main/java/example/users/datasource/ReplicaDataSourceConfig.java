@@ -0,0 +1,90 @@
+package example.users.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Splits the database into a primary pool, configured by {@code spring.datasource.*}, and a read replica pool,
+ * configured by {@code user.datasource.replica.*}. Enabled with {@code user.datasource.replica.enabled=true}.
+ * <p>
+ * Without {@code user.datasource.replica.url} the replica is a second in-memory H2 database initialized with
+ * the same scripts as the primary. It is not replicated to, which makes routing visible when trying it locally.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "user.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+   @Bean
+   @ConfigurationProperties("spring.datasource.hikari")
+   HikariDataSource primaryDataSource(DataSourceProperties properties) {
+       return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+   }
+
+   @Bean
+   @ConfigurationProperties("user.datasource.replica.hikari")
+   HikariDataSource replicaDataSource(Environment environment) throws Exception {
+       DataSourceProperties properties = Binder.get(environment)
+           .bind("user.datasource.replica", DataSourceProperties.class)
+           .orElseGet(DataSourceProperties::new);
+       properties.setBeanClassLoader(getClass().getClassLoader());
+       properties.afterPropertiesSet();
+       return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+   }
+
+   /**
+    * The data source everything else uses. The connection is only taken from a pool when the first statement
+    * runs, so the route in effect at that point decides the pool.
+    */
+   @Bean
+   @Primary
+   DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary, @Qualifier("replicaDataSource") DataSource replica) {
+       RoutingDataSource routingDataSource = new RoutingDataSource();
+       routingDataSource.setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+       routingDataSource.setDefaultTargetDataSource(primary);
+       routingDataSource.afterPropertiesSet();
+       return new LazyConnectionDataSourceProxy(routingDataSource);
+   }
+
+   @Bean
+   SqlDataSourceScriptDatabaseInitializer primaryScriptDatabaseInitializer(@Qualifier("primaryDataSource") DataSource primary,
+        SqlInitializationProperties properties) {
+       return new SqlDataSourceScriptDatabaseInitializer(primary, properties);
+   }
+
+   @Bean
+   SqlDataSourceScriptDatabaseInitializer replicaScriptDatabaseInitializer(@Qualifier("replicaDataSource") DataSource replica,
+        SqlInitializationProperties properties) {
+       return new SqlDataSourceScriptDatabaseInitializer(replica, properties);
+   }
+
+   @Bean
+   WebMvcConfigurer replicaRouting(@Value("${user.datasource.replica.read-your-writes-window:5s}") Duration readYourWritesWindow) {
+       ReplicaRoutingInterceptor interceptor = new ReplicaRoutingInterceptor(readYourWritesWindow);
+       return new WebMvcConfigurer() {
+           @Override
+           public void addInterceptors(InterceptorRegistry registry) {
+               registry.addInterceptor(interceptor).addPathPatterns("/users/**");
+           }
+       };
+   }
+}
@@ -0,0 +1,18 @@
+package example.users.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler method that only reads, so its queries may be served by the read replica.
+ * They go to the primary instead when no replica is configured, or when the principal has written
+ * within the read-your-writes window. Only queries made on the request thread are routed.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaRead {
+}
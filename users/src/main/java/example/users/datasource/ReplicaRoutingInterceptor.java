@@ -0,0 +1,59 @@
+package example.users.datasource;
+
+import java.security.Principal;
+import java.time.Duration;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Routes {@link ReplicaRead} requests to the replica, except for principals that wrote within the
+ * read-your-writes window: their reads stay on the primary until the replica has had time to catch up.
+ * The window starts again when each write request completes.
+ */
+class ReplicaRoutingInterceptor implements HandlerInterceptor {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    ReplicaRoutingInterceptor(Duration readYourWritesWindow) {
+        this.recentWriters = Caffeine.newBuilder().expireAfterWrite(readYourWritesWindow).build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Principal principal = request.getUserPrincipal();
+        if (!isRead(request)) {
+            markWriter(principal);
+        } else if (handler instanceof HandlerMethod handlerMethod
+                && handlerMethod.hasMethodAnnotation(ReplicaRead.class)
+                && (principal == null || recentWriters.getIfPresent(principal.getName()) == null)) {
+            DataSourceRoute.set(DataSourceRoute.REPLICA);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        DataSourceRoute.clear();
+        if (!isRead(request)) {
+            markWriter(request.getUserPrincipal());
+        }
+    }
+
+    private void markWriter(Principal principal) {
+        if (principal != null) {
+            recentWriters.put(principal.getName(), Boolean.TRUE);
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+}
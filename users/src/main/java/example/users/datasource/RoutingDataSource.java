@@ -0,0 +1,14 @@
+package example.users.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections of the primary or the replica pool according to the {@link DataSourceRoute} of the current thread.
+ */
+class RoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return DataSourceRoute.current();
+    }
+}
@@ -0,0 +1,49 @@
+package example.users.datasource;
+
+import java.security.Principal;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts each owner's requests in flight for the {@link ShardDirectory}, and answers 503 with a {@code Retry-After}
+ * while the owner is being moved to another shard. An export or stream counts until its async dispatch completes.
+ */
+class ShardAdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ADMITTED = ShardAdmissionInterceptor.class.getName() + ".owner";
+
+    private final ShardDirectory directory;
+
+    ShardAdmissionInterceptor(ShardDirectory directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Principal principal = request.getUserPrincipal();
+        if (request.getDispatcherType() == DispatcherType.ASYNC || principal == null) {
+            return true;
+        }
+        if (!directory.enter(principal.getName())) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return false;
+        }
+        request.setAttribute(ADMITTED, principal.getName());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(ADMITTED) instanceof String owner) {
+            request.removeAttribute(ADMITTED);
+            directory.exit(owner);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package example.users.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Where each owner's users currently live. That is the owner's shard on the {@link ShardRing}, unless the owner was
+ * found elsewhere at startup, for instance because shards were added since its users were written. Such displaced
+ * owners keep being served from where their users are until the {@link ShardRebalancer} moves them.
+ * <p>
+ * The directory also admits requests: while an owner is being moved its requests are turned away, and a move only
+ * starts once the owner's requests in flight have completed. Other owners are not affected.
+ */
+final class ShardDirectory {
+
+    private final ShardRing ring;
+
+    private final Map<String, Integer> displaced = new ConcurrentHashMap<>();
+
+    private final Map<String, Integer> inFlight = new ConcurrentHashMap<>();
+
+    private final Set<String> moving = ConcurrentHashMap.newKeySet();
+
+    ShardDirectory(ShardRing ring) {
+        this.ring = ring;
+    }
+
+    ShardRing ring() {
+        return ring;
+    }
+
+    int shardOf(String owner) {
+        Integer shard = displaced.get(owner);
+        return shard != null ? shard : ring.shardOf(owner);
+    }
+
+    /**
+     * Records that an owner's users live on a shard other than its shard on the ring.
+     *
+     * @return the shard the owner was already recorded on, or {@code null}
+     */
+    Integer place(String owner, int shard) {
+        return shard == ring.shardOf(owner) ? displaced.remove(owner) : displaced.put(owner, shard);
+    }
+
+    /**
+     * @return the displaced owners and the shard each of them lives on
+     */
+    Map<String, Integer> displaced() {
+        return Map.copyOf(displaced);
+    }
+
+    /**
+     * Admits a request of the owner.
+     *
+     * @return {@code false} if the owner is being moved; {@link #exit} must not be called then
+     */
+    boolean enter(String owner) {
+        inFlight.merge(owner, 1, Integer::sum);
+        if (moving.contains(owner)) {
+            exit(owner);
+            return false;
+        }
+        return true;
+    }
+
+    void exit(String owner) {
+        inFlight.computeIfPresent(owner, (key, count) -> count == 1 ? null : count - 1);
+    }
+
+    /**
+     * Stops admitting the owner's requests and waits for the ones in flight.
+     *
+     * @return {@code false}, admitting requests again, if they did not complete within the timeout
+     */
+    boolean beginMove(String owner, Duration timeout) throws InterruptedException {
+        if (!moving.add(owner)) {
+            return false;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight.containsKey(owner)) {
+            if (System.nanoTime() > deadline) {
+                moving.remove(owner);
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    void endMove(String owner) {
+        moving.remove(owner);
+    }
+}
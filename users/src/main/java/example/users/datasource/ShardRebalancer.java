@@ -0,0 +1,214 @@
+package example.users.datasource;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Finds owners whose users are not on their shard on the ring and moves them there, one owner at a time,
+ * while the application keeps serving everyone else.
+ * <p>
+ * Moving an owner stops admitting its requests, clears whatever a previous attempt left of it on the new shard, copies
+ * its users there in batches, records the complete copy in the new shard's {@code SHARD_MOVE} table, deletes the users
+ * from the old shard and only then routes the owner to the new shard and clears the record.
+ * <p>
+ * A move the application did not finish is settled at the next startup, before any request is served. A recorded
+ * copy is complete, so the move is finished by deleting the owner's users from the old shard. Without a record, the
+ * old shard still holds all of the owner's users and keeps serving them, and the partial copy on the new shard is
+ * discarded, so users deleted in the meantime do not come back.
+ */
+class ShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private static final String SELECT = """
+        SELECT ID, NAME, LAST_NAME, EMAIL, BIRTHDAY, PHONE_NUMBER, ADDRESS, OWNER, VERSION FROM "USER"
+        WHERE OWNER = ? AND ID > ? ORDER BY ID LIMIT ?
+        """;
+
+    private static final String INSERT = """
+        INSERT INTO "USER" (ID, NAME, LAST_NAME, EMAIL, BIRTHDAY, PHONE_NUMBER, ADDRESS, OWNER, VERSION)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String DELETE = "DELETE FROM \"USER\" WHERE OWNER = ?";
+
+    private static final String SELECT_MOVES = "SELECT OWNER, SOURCE_SHARD FROM SHARD_MOVE";
+
+    private static final String INSERT_MOVE = "INSERT INTO SHARD_MOVE (OWNER, SOURCE_SHARD) VALUES (?, ?)";
+
+    private static final String DELETE_MOVE = "DELETE FROM SHARD_MOVE WHERE OWNER = ?";
+
+    private static final int COLUMNS = 9;
+
+    private final List<JdbcTemplate> shards;
+
+    private final ShardDirectory directory;
+
+    private final Duration moveTimeout;
+
+    private final int batchSize;
+
+    ShardRebalancer(List<DataSource> shards, ShardDirectory directory, Duration moveTimeout, int batchSize) {
+        this.shards = shards.stream().map(JdbcTemplate::new).toList();
+        this.directory = directory;
+        this.moveTimeout = moveTimeout;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Settles the moves the application did not finish, then records every owner found on a shard other than its
+     * shard on the ring in the directory.
+     */
+    void locateOwners() {
+        completeRecordedMoves();
+        ShardRing ring = directory.ring();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            int current = shard;
+            shards.get(shard).query("SELECT DISTINCT OWNER FROM \"USER\"", resultSet -> {
+                String owner = resultSet.getString(1);
+                if (ring.shardOf(owner) != current) {
+                    Integer previous = directory.place(owner, current);
+                    if (previous != null) {
+                        log.warn("Users of {} were found on shards {} and {}, serving them from {}", owner, previous, current, current);
+                    }
+                }
+            });
+        }
+        // Moves copy to the owner's shard on the ring, so users there of an owner served elsewhere are a partial copy
+        for (Map.Entry<String, Integer> entry : directory.displaced().entrySet()) {
+            int partialCopy = ring.shardOf(entry.getKey());
+            int discarded = shards.get(partialCopy).update(DELETE, entry.getKey());
+            if (discarded > 0) {
+                log.warn("Discarded {} users of {} that an unfinished move had copied to shard {}; serving them from shard {}",
+                    discarded, entry.getKey(), partialCopy, entry.getValue());
+            }
+        }
+        int displaced = directory.displaced().size();
+        if (displaced > 0) {
+            log.info("{} owners are not on their shard yet and are served where their users are until they are rebalanced", displaced);
+        }
+    }
+
+    /**
+     * Finishes every move whose copy is recorded as complete by deleting the owner's users from the shard they were
+     * copied from.
+     */
+    private void completeRecordedMoves() {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            JdbcTemplate target = shards.get(shard);
+            for (Map<String, Object> move : target.queryForList(SELECT_MOVES)) {
+                String owner = (String) move.get("OWNER");
+                int from = ((Number) move.get("SOURCE_SHARD")).intValue();
+                int deleted = shards.get(from).update(DELETE, owner);
+                target.update(DELETE_MOVE, owner);
+                log.info("Finished moving {} from shard {} to shard {}: deleted the {} users left on shard {}", owner, from, shard, deleted, from);
+            }
+        }
+    }
+
+    /**
+     * @return the number of users and of owners on each shard
+     */
+    List<Map<String, Object>> shardSizes() {
+        List<Map<String, Object>> sizes = new ArrayList<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            Map<String, Object> size = new LinkedHashMap<>();
+            size.put("shard", shard);
+            shards.get(shard).query("SELECT COUNT(*), COUNT(DISTINCT OWNER) FROM \"USER\"", resultSet -> {
+                size.put("users", resultSet.getLong(1));
+                size.put("owners", resultSet.getLong(2));
+            });
+            sizes.add(size);
+        }
+        return sizes;
+    }
+
+    /**
+     * Moves every displaced owner to its shard on the ring.
+     *
+     * @return the number of owners and users moved, and the owners skipped because their requests did not complete in time
+     */
+    Result rebalance() throws InterruptedException {
+        int owners = 0;
+        long users = 0;
+        List<String> skipped = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : directory.displaced().entrySet()) {
+            long moved = move(entry.getKey(), entry.getValue(), directory.ring().shardOf(entry.getKey()));
+            if (moved < 0) {
+                skipped.add(entry.getKey());
+            } else {
+                owners++;
+                users += moved;
+            }
+        }
+        return new Result(owners, users, skipped);
+    }
+
+    private long move(String owner, int from, int to) throws InterruptedException {
+        if (!directory.beginMove(owner, moveTimeout)) {
+            log.warn("Not moving {}: its requests did not complete within {}", owner, moveTimeout);
+            return -1;
+        }
+        try {
+            JdbcTemplate source = shards.get(from);
+            JdbcTemplate target = shards.get(to);
+            target.update(DELETE_MOVE, owner);
+            target.update(DELETE, owner);
+            long moved = copy(owner, source, target);
+            target.update(INSERT_MOVE, owner, from);
+            try {
+                source.update(DELETE, owner);
+            } catch (RuntimeException e) {
+                // The owner stays on the old shard and may change its users there, so the copy must not be taken as complete
+                target.update(DELETE_MOVE, owner);
+                throw e;
+            }
+            directory.place(owner, to);
+            target.update(DELETE_MOVE, owner);
+            log.info("Moved {} users of {} from shard {} to shard {}", moved, owner, from, to);
+            return moved;
+        } finally {
+            directory.endMove(owner);
+        }
+    }
+
+    private long copy(String owner, JdbcTemplate source, JdbcTemplate target) {
+        long moved = 0;
+        long lastId = Long.MIN_VALUE;
+        List<Object[]> rows;
+        do {
+            rows = source.query(SELECT, ShardRebalancer::row, owner, lastId, batchSize);
+            if (!rows.isEmpty()) {
+                target.batchUpdate(INSERT, rows);
+                lastId = (Long) rows.get(rows.size() - 1)[0];
+                moved += rows.size();
+            }
+        } while (rows.size() == batchSize);
+        return moved;
+    }
+
+    private static Object[] row(ResultSet resultSet, int rowNum) throws SQLException {
+        Object[] row = new Object[COLUMNS];
+        for (int i = 0; i < COLUMNS; i++) {
+            row[i] = resultSet.getObject(i + 1);
+        }
+        return row;
+    }
+
+    /**
+     * The outcome of a rebalancing run.
+     */
+    record Result(int owners, long users, List<String> skipped) {
+    }
+}
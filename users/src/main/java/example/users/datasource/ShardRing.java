@@ -0,0 +1,60 @@
+package example.users.datasource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hashing of owners onto shards. Each shard owns a number of virtual nodes on a 64-bit ring and an owner
+ * belongs to the shard of the first node at or after its hash. Adding a shard only takes owners over from the others,
+ * about one in {@code n} of them; no owner moves between two shards that already existed.
+ */
+final class ShardRing {
+
+    private final NavigableMap<Long, Integer> nodes = new TreeMap<>();
+
+    private final int shards;
+
+    ShardRing(int shards, int virtualNodes) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("At least one shard is needed, was " + shards);
+        }
+        this.shards = shards;
+        for (int shard = 0; shard < shards; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                nodes.put(hash("shard-" + shard + "#" + node), shard);
+            }
+        }
+    }
+
+    int shards() {
+        return shards;
+    }
+
+    /**
+     * @return the shard the owner's users are placed on
+     */
+    int shardOf(String owner) {
+        Map.Entry<Long, Integer> node = nodes.ceilingEntry(hash(owner));
+        return (node != null ? node : nodes.firstEntry()).getValue();
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes, followed by the MurmurHash3 finalizer to spread similar keys such as
+     * {@code owner1} and {@code owner2} over the whole ring.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
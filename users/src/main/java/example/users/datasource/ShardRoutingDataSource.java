@@ -0,0 +1,25 @@
+package example.users.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Hands out connections of the shard of the authenticated owner. The owner is taken from the security context,
+ * which Spring Security also carries over to the async threads writing exports and streams.
+ * Work done without an authenticated owner, such as startup checks, goes to shard 0.
+ */
+class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ShardDirectory directory;
+
+    ShardRoutingDataSource(ShardDirectory directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? 0 : directory.shardOf(authentication.getName());
+    }
+}
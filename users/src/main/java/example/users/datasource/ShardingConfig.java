@@ -0,0 +1,185 @@
+package example.users.datasource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Shards the USER table by owner over {@code user.sharding.count} databases, each configured by
+ * {@code user.sharding.shards[n].*} and sharing the pool settings of {@code user.sharding.hikari.*}.
+ * Enabled with {@code user.sharding.enabled=true}; it cannot be combined with the read replica.
+ * <p>
+ * Every query is scoped by owner, so each request runs entirely on its owner's shard. IDs of new users come from
+ * a {@link SnowflakeIdGenerator} rather than the identity column, whose values would collide between shards.
+ * Without {@code user.sharding.shards[n].url} a shard is a separate in-memory H2 database.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "user.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+   ShardingConfig(@Value("${user.datasource.replica.enabled:false}") boolean replicaEnabled) {
+       if (replicaEnabled) {
+           throw new IllegalStateException("user.sharding.enabled and user.datasource.replica.enabled cannot both be true");
+       }
+   }
+
+   @Bean
+   ShardDirectory shardDirectory(@Value("${user.sharding.count:2}") int count,
+        @Value("${user.sharding.virtual-nodes:128}") int virtualNodes) {
+       return new ShardDirectory(new ShardRing(count, virtualNodes));
+   }
+
+   @Bean
+   ShardPools shardPools(Environment environment, ShardDirectory directory, MeterRegistry meterRegistry) throws Exception {
+       Binder binder = Binder.get(environment);
+       List<HikariDataSource> pools = new ArrayList<>();
+       for (int shard = 0; shard < directory.ring().shards(); shard++) {
+           DataSourceProperties properties = binder.bind("user.sharding.shards[" + shard + "]", DataSourceProperties.class)
+               .orElseGet(DataSourceProperties::new);
+           properties.setBeanClassLoader(getClass().getClassLoader());
+           properties.afterPropertiesSet();
+           HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+           binder.bind("user.sharding.hikari", Bindable.ofInstance(pool));
+           pool.setPoolName("users-shard-" + shard);
+           // The pools are not beans, so Spring Boot does not bind their metrics
+           pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+           pools.add(pool);
+       }
+       return new ShardPools(pools);
+   }
+
+   /**
+    * The data source everything else uses. The connection is only taken from a pool when the first statement
+    * runs, by which point the owner of the request is known.
+    */
+   @Bean
+   @Primary
+   DataSource dataSource(ShardPools shardPools, ShardDirectory directory) {
+       Map<Object, Object> targets = new HashMap<>();
+       for (int shard = 0; shard < shardPools.pools().size(); shard++) {
+           targets.put(shard, shardPools.pools().get(shard));
+       }
+       ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource(directory);
+       routingDataSource.setTargetDataSources(targets);
+       routingDataSource.setDefaultTargetDataSource(shardPools.pools().get(0));
+       routingDataSource.afterPropertiesSet();
+       return new LazyConnectionDataSourceProxy(routingDataSource);
+   }
+
+   @Bean
+   SqlDataSourceScriptDatabaseInitializer shardScriptDatabaseInitializer(ShardPools shardPools, SqlInitializationProperties properties) {
+       return new ShardScriptDatabaseInitializer(shardPools.pools(), properties);
+   }
+
+   @Bean
+   SnowflakeIdGenerator userIdGenerator(Clock clock, @Value("${user.sharding.node-id:0}") long nodeId) {
+       return new SnowflakeIdGenerator(clock, nodeId);
+   }
+
+   /**
+    * With Flyway enabled, migrates every shard instead of only the one behind the primary data source.
+    */
+   @Bean
+   @ConditionalOnProperty(name = "spring.flyway.enabled", havingValue = "true")
+   FlywayMigrationStrategy shardMigrationStrategy(ShardPools shardPools) {
+       return flyway -> shardPools.pools().forEach(pool ->
+           Flyway.configure().configuration(flyway.getConfiguration()).dataSource(pool).load().migrate());
+   }
+
+   @Bean
+   @DependsOnDatabaseInitialization
+   ShardRebalancer shardRebalancer(ShardPools shardPools, ShardDirectory directory,
+        @Value("${user.sharding.move-timeout:30s}") Duration moveTimeout,
+        @Value("${user.sharding.move-batch-size:1000}") int batchSize) {
+       ShardRebalancer rebalancer = new ShardRebalancer(List.copyOf(shardPools.pools()), directory, moveTimeout, batchSize);
+       rebalancer.locateOwners();
+       return rebalancer;
+   }
+
+   @Bean
+   ShardsEndpoint shardsEndpoint(ShardRebalancer rebalancer, ShardDirectory directory,
+        @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor executor, Clock clock) {
+       return new ShardsEndpoint(rebalancer, directory, executor, clock);
+   }
+
+   @Bean
+   WebMvcConfigurer shardAdmission(ShardDirectory directory) {
+       ShardAdmissionInterceptor interceptor = new ShardAdmissionInterceptor(directory);
+       return new WebMvcConfigurer() {
+           @Override
+           public void addInterceptors(InterceptorRegistry registry) {
+               registry.addInterceptor(interceptor).addPathPatterns("/users/**");
+           }
+       };
+   }
+
+   /**
+    * The connection pools of the shards, in shard order.
+    */
+   record ShardPools(List<HikariDataSource> pools) implements AutoCloseable {
+
+       @Override
+       public void close() {
+           pools.forEach(HikariDataSource::close);
+       }
+   }
+
+   /**
+    * Runs the schema scripts on every shard, and the data scripts on shard 0 only: what they insert is placed
+    * like users written before sharding was enabled, and reaches the other shards by rebalancing.
+    */
+   static final class ShardScriptDatabaseInitializer extends SqlDataSourceScriptDatabaseInitializer {
+
+       private final List<SqlDataSourceScriptDatabaseInitializer> otherShards;
+
+       ShardScriptDatabaseInitializer(List<? extends DataSource> pools, SqlInitializationProperties properties) {
+           super(pools.get(0), properties);
+           DatabaseInitializationSettings schemaOnly = SqlDataSourceScriptDatabaseInitializer.getSettings(properties);
+           schemaOnly.setDataLocations(List.of());
+           this.otherShards = pools.stream().skip(1)
+               .map(pool -> new SqlDataSourceScriptDatabaseInitializer(pool, schemaOnly))
+               .toList();
+       }
+
+       @Override
+       public boolean initializeDatabase() {
+           boolean initialized = super.initializeDatabase();
+           for (SqlDataSourceScriptDatabaseInitializer shard : otherShards) {
+               initialized |= shard.initializeDatabase();
+           }
+           return initialized;
+       }
+   }
+}
@@ -0,0 +1,86 @@
+package example.users.datasource;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.task.TaskExecutor;
+
+/**
+ * {@code GET /actuator/shards} reports the size of each shard, the owners not on their shard yet and the last
+ * rebalancing run. {@code POST /actuator/shards} starts moving those owners, online, in the background and returns
+ * the run at once; while a run is in progress, posting again returns that run rather than starting another.
+ * Like the other actuator endpoints it is restricted to the OPS role.
+ */
+@Endpoint(id = "shards")
+class ShardsEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardsEndpoint.class);
+
+    private final ShardRebalancer rebalancer;
+
+    private final ShardDirectory directory;
+
+    private final TaskExecutor executor;
+
+    private final Clock clock;
+
+    private volatile Rebalancing last;
+
+    ShardsEndpoint(ShardRebalancer rebalancer, ShardDirectory directory, TaskExecutor executor, Clock clock) {
+        this.rebalancer = rebalancer;
+        this.directory = directory;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    @ReadOperation
+    public Map<String, Object> shards() {
+        Map<String, Object> shards = new LinkedHashMap<>();
+        shards.put("shards", rebalancer.shardSizes());
+        shards.put("displacedOwners", directory.displaced().size());
+        shards.put("rebalance", last);
+        return shards;
+    }
+
+    @WriteOperation
+    public synchronized Rebalancing rebalance() {
+        if (last == null || !last.state().equals(Rebalancing.RUNNING)) {
+            last = new Rebalancing(Rebalancing.RUNNING, clock.instant(), null, null, null);
+            executor.execute(this::run);
+        }
+        return last;
+    }
+
+    private void run() {
+        Instant startedAt = last.startedAt();
+        try {
+            ShardRebalancer.Result result = rebalancer.rebalance();
+            last = new Rebalancing(Rebalancing.COMPLETED, startedAt, clock.instant(), result, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            last = new Rebalancing(Rebalancing.FAILED, startedAt, clock.instant(), null, "Interrupted");
+        } catch (RuntimeException e) {
+            log.error("Rebalancing the shards failed", e);
+            last = new Rebalancing(Rebalancing.FAILED, startedAt, clock.instant(), null, e.getMessage());
+        }
+    }
+
+    /**
+     * A rebalancing run: running, completed with its result, or failed with the reason.
+     */
+    record Rebalancing(String state, Instant startedAt, Instant finishedAt, ShardRebalancer.Result result, String error) {
+
+        static final String RUNNING = "running";
+
+        static final String COMPLETED = "completed";
+
+        static final String FAILED = "failed";
+    }
+}
@@ -0,0 +1,56 @@
+package example.users.datasource;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Generates IDs that are unique across shards and application instances without asking any database:
+ * 41 bits of milliseconds since 2024-01-01, 5 bits of node ID and a 7 bit sequence within the millisecond.
+ * The 53 bits keep every ID within the integers a JavaScript number holds exactly, so clients do not round them.
+ * IDs of one node are strictly increasing. When the clock steps back, or more than 128 IDs are taken in one
+ * millisecond, the generator carries on from the last timestamp it used instead of waiting for the clock.
+ */
+public final class SnowflakeIdGenerator {
+
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    static final int NODE_BITS = 5;
+
+    static final int SEQUENCE_BITS = 7;
+
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    private final Clock clock;
+
+    private final long node;
+
+    private long lastTimestamp = -1;
+
+    private long sequence;
+
+    /**
+     * @param clock the clock the timestamps are taken from
+     * @param nodeId the ID of this node, from 0 to 31, unique among the running instances
+     */
+    public SnowflakeIdGenerator(Clock clock, long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("The node ID must be between 0 and " + MAX_NODE_ID + ", was " + nodeId);
+        }
+        this.clock = clock;
+        this.node = nodeId << SEQUENCE_BITS;
+    }
+
+    public synchronized long nextId() {
+        long now = clock.millis() - EPOCH;
+        if (now > lastTimestamp) {
+            lastTimestamp = now;
+            sequence = 0;
+        } else if (++sequence > MAX_SEQUENCE) {
+            lastTimestamp++;
+            sequence = 0;
+        }
+        return (lastTimestamp << (NODE_BITS + SEQUENCE_BITS)) | node | sequence;
+    }
+}
@@ -0,0 +1,19 @@
+package example.users.metrics;
+
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Adds the endpoint being handled to the default tags of {@code spring.data.repository.invocations}:
+ * repository, method, state (the outcome) and exception.
+ */
+public class EndpointRepositoryTagsProvider extends DefaultRepositoryTagsProvider {
+
+    @Override
+    public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+        return Tags.of(super.repositoryTags(invocation)).and("endpoint", RequestEndpoint.current());
+    }
+}
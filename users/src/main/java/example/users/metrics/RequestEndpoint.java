@@ -0,0 +1,36 @@
+package example.users.metrics;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Names the endpoint the current request was mapped to, for tagging meters recorded while handling it.
+ */
+public final class RequestEndpoint {
+
+    /**
+     * The endpoint of work done outside a mapped request, e.g. at startup or on a streaming thread.
+     */
+    public static final String NONE = "none";
+
+    private RequestEndpoint() {
+    }
+
+    /**
+     * @return the method and URI pattern of the current request, e.g. {@code GET /users/{requestedId}},
+     *         or {@link #NONE} if there is no request or it has not been mapped yet
+     */
+    public static String current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return NONE;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? NONE : request.getMethod() + " " + pattern;
+    }
+}
@@ -0,0 +1,38 @@
+package example.users.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+/**
+ * Logs every repository call that takes longer than a threshold, with the endpoint it was made for.
+ * Streaming calls such as {@code streamByOwner} run for as long as the response is being written, so they are
+ * logged whenever an export outlasts the threshold.
+ */
+public class SlowRepositoryInvocationLogger implements RepositoryMethodInvocationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowRepositoryInvocationLogger.class);
+
+    private final long thresholdNanos;
+
+    public SlowRepositoryInvocationLogger(Duration threshold) {
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    @Override
+    public void afterInvocation(RepositoryMethodInvocation invocation) {
+        long nanos = invocation.getDuration(TimeUnit.NANOSECONDS);
+        if (nanos < thresholdNanos) {
+            return;
+        }
+        log.warn("Slow repository call {}.{} took {} ms ({}, endpoint {})",
+            invocation.getRepositoryInterface().getSimpleName(),
+            invocation.getMethod().getName(),
+            TimeUnit.NANOSECONDS.toMillis(nanos),
+            invocation.getResult() == null ? "unknown" : invocation.getResult().getState(),
+            RequestEndpoint.current());
+    }
+}
@@ -0,0 +1,69 @@
+package example.users.metrics;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * A {@link MappingJackson2HttpMessageConverter} that times reading request bodies and writing response bodies,
+ * tagged by endpoint and outcome. Writing includes flushing the body to the client.
+ * Newline-delimited JSON streams are written with the {@link ObjectMapper} directly and are not timed here.
+ */
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    static final String METER_NAME = "users.http.json";
+
+    private final MeterRegistry registry;
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry registry) {
+        super(objectMapper);
+        this.registry = registry;
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            Object body = super.read(type, contextClass, inputMessage);
+            outcome = "success";
+            return body;
+        } finally {
+            sample.stop(timer("read", outcome));
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            super.writeInternal(object, type, outputMessage);
+            outcome = "success";
+        } finally {
+            sample.stop(timer("write", outcome));
+        }
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder(METER_NAME)
+            .tag("operation", operation)
+            .tag("endpoint", RequestEndpoint.current())
+            .tag("outcome", outcome)
+            .description("Time spent mapping JSON request and response bodies")
+            .register(registry);
+    }
+}
@@ -0,0 +1,82 @@
+package example.users.metrics;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Times Bean Validation of users received in requests, tagged by endpoint and by whether the user was valid:
+ * {@code @Valid} request bodies through the {@link SmartValidator} contract, and the elements of a batch and the
+ * fields of a patch through {@link #validate(Object)} and {@link #validateProperty(Object, String)}.
+ */
+public class TimedValidator implements SmartValidator {
+
+    static final String METER_NAME = "users.validation";
+
+    private final Validator validator;
+
+    private final SmartValidator delegate;
+
+    private final MeterRegistry registry;
+
+    public TimedValidator(Validator validator, MeterRegistry registry) {
+        this.validator = validator;
+        this.delegate = new SpringValidatorAdapter(validator);
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        validate(target, errors, new Object[0]);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        int errorsBefore = errors.getErrorCount();
+        Timer.Sample sample = Timer.start(registry);
+        delegate.validate(target, errors, validationHints);
+        sample.stop(timer(errors.getErrorCount() > errorsBefore));
+    }
+
+    /**
+     * @see Validator#validate(Object, Class[])
+     */
+    public <T> Set<ConstraintViolation<T>> validate(T object) {
+        return timed(() -> validator.validate(object));
+    }
+
+    /**
+     * @see Validator#validateProperty(Object, String, Class[])
+     */
+    public <T> Set<ConstraintViolation<T>> validateProperty(T object, String propertyName) {
+        return timed(() -> validator.validateProperty(object, propertyName));
+    }
+
+    private <T> Set<ConstraintViolation<T>> timed(Supplier<Set<ConstraintViolation<T>>> validation) {
+        Timer.Sample sample = Timer.start(registry);
+        Set<ConstraintViolation<T>> violations = validation.get();
+        sample.stop(timer(!violations.isEmpty()));
+        return violations;
+    }
+
+    private Timer timer(boolean invalid) {
+        return Timer.builder(METER_NAME)
+            .tag("endpoint", RequestEndpoint.current())
+            .tag("outcome", invalid ? "invalid" : "valid")
+            .description("Time spent validating users received in requests")
+            .register(registry);
+    }
+}
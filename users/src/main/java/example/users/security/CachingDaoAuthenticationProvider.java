@@ -0,0 +1,35 @@
+package example.users.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * A {@link DaoAuthenticationProvider} that skips the password encoder for credentials
+ * found in the {@link VerifiedCredentialCache}, and records every successful full check there.
+ */
+public class CachingDaoAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final VerifiedCredentialCache credentialCache;
+
+    public CachingDaoAuthenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder, VerifiedCredentialCache credentialCache) {
+        setPasswordEncoder(passwordEncoder);
+        setUserDetailsService(userDetailsService);
+        this.credentialCache = credentialCache;
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails, UsernamePasswordAuthenticationToken authentication) throws AuthenticationException {
+        Object credentials = authentication.getCredentials();
+        if (credentials != null && credentialCache.isVerified(userDetails.getUsername(), credentials.toString(), userDetails.getPassword())) {
+            return;
+        }
+
+        super.additionalAuthenticationChecks(userDetails, authentication);
+
+        credentialCache.put(userDetails.getUsername(), credentials.toString(), userDetails.getPassword());
+    }
+}
@@ -0,0 +1,48 @@
+package example.users.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+/**
+ * An {@link InMemoryUserDetailsManager} that evicts a user from the {@link VerifiedCredentialCache}
+ * whenever their details or password change.
+ */
+public class CredentialCacheInvalidatingUserDetailsManager extends InMemoryUserDetailsManager {
+
+    private final VerifiedCredentialCache credentialCache;
+
+    public CredentialCacheInvalidatingUserDetailsManager(VerifiedCredentialCache credentialCache, UserDetails... users) {
+        super(users);
+        this.credentialCache = credentialCache;
+    }
+
+    @Override
+    public void updateUser(UserDetails user) {
+        super.updateUser(user);
+        credentialCache.invalidate(user.getUsername());
+    }
+
+    @Override
+    public void deleteUser(String username) {
+        super.deleteUser(username);
+        credentialCache.invalidate(username);
+    }
+
+    @Override
+    public void changePassword(String oldPassword, String newPassword) {
+        super.changePassword(oldPassword, newPassword);
+        Authentication currentUser = SecurityContextHolder.getContext().getAuthentication();
+        if (currentUser != null) {
+            credentialCache.invalidate(currentUser.getName());
+        }
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserDetails updated = super.updatePassword(user, newPassword);
+        credentialCache.invalidate(user.getUsername());
+        return updated;
+    }
+}
@@ -0,0 +1,54 @@
+package example.users.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * A {@link PasswordEncoder} that times every password verification, tagged by whether the password matched.
+ * Verifications skipped by the {@link VerifiedCredentialCache} never reach the encoder and are not timed.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    static final String METER_NAME = "users.auth.password.verification";
+
+    private final PasswordEncoder delegate;
+
+    private final Timer matched;
+
+    private final Timer mismatched;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.matched = timer(registry, "match");
+        this.mismatched = timer(registry, "mismatch");
+    }
+
+    private static Timer timer(MeterRegistry registry, String outcome) {
+        return Timer.builder(METER_NAME)
+            .tag("outcome", outcome)
+            .description("Time spent verifying a password with the password encoder")
+            .register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        (matches ? matched : mismatched).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
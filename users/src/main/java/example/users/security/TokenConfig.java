@@ -0,0 +1,72 @@
+package example.users.security;
+
+import java.time.Duration;
+import java.util.Base64;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+
+/**
+ * Beans for the stateless token authentication mode ({@code user.security.auth-mode=token}).
+ * Tokens are HS256-signed JWTs. Unless {@code user.security.token.secret} holds a base64 key shared
+ * by all nodes, the signing key is generated at startup and tokens do not survive a restart.
+ */
+@Configuration
+@ConditionalOnProperty(name = "user.security.auth-mode", havingValue = "token")
+public class TokenConfig {
+
+    static final String ROLES_CLAIM = "roles";
+
+    @Bean
+    SecretKey tokenSigningKey(@Value("${user.security.token.secret:}") String secret) throws Exception {
+        if (!secret.isBlank()) {
+            return new SecretKeySpec(Base64.getDecoder().decode(secret), "HmacSHA256");
+        }
+        KeyGenerator generator = KeyGenerator.getInstance("HmacSHA256");
+        generator.init(256);
+        return generator.generateKey();
+    }
+
+    @Bean
+    JwtEncoder jwtEncoder(SecretKey tokenSigningKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(tokenSigningKey));
+    }
+
+    @Bean
+    JwtDecoder jwtDecoder(SecretKey tokenSigningKey) {
+        return NimbusJwtDecoder.withSecretKey(tokenSigningKey)
+            .macAlgorithm(MacAlgorithm.HS256)
+            .build();
+    }
+
+    @Bean
+    JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter authorities = new JwtGrantedAuthoritiesConverter();
+        authorities.setAuthoritiesClaimName(ROLES_CLAIM);
+        authorities.setAuthorityPrefix("");
+
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authorities);
+        return converter;
+    }
+
+    @Bean
+    TokenService tokenService(JwtEncoder jwtEncoder, @Value("${user.security.token.ttl:15m}") Duration ttl) {
+        return new TokenService(jwtEncoder, ttl);
+    }
+}
@@ -0,0 +1,41 @@
+package example.users.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * The controller that exchanges Basic credentials for a signed token in token authentication mode.
+ */
+@RestController
+@RequestMapping("/auth")
+@ConditionalOnProperty(name = "user.security.auth-mode", havingValue = "token")
+public class TokenController {
+
+    private final TokenService tokenService;
+
+    private TokenController(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    /**
+     * Issues a token for the principal authenticated with Basic credentials.
+     *
+     * @param authentication the authenticated principal
+     * @return a ResponseEntity containing the token, its type and its lifetime in seconds
+     */
+    @PostMapping("/token")
+    private ResponseEntity<Map<String, Object>> token(Authentication authentication) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("token", tokenService.issue(authentication));
+        body.put("tokenType", "Bearer");
+        body.put("expiresIn", tokenService.getTtl().toSeconds());
+        return ResponseEntity.ok(body);
+    }
+}
@@ -0,0 +1,58 @@
+package example.users.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+/**
+ * Issues short-lived signed tokens for an already authenticated principal.
+ */
+public class TokenService {
+
+    private static final String ISSUER = "users";
+
+    private final JwtEncoder jwtEncoder;
+
+    private final Duration ttl;
+
+    public TokenService(JwtEncoder jwtEncoder, Duration ttl) {
+        this.jwtEncoder = jwtEncoder;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Issues a token carrying the principal's name and authorities.
+     *
+     * @param authentication the principal authenticated with Basic credentials
+     * @return the encoded token
+     */
+    public String issue(Authentication authentication) {
+        Instant now = Instant.now();
+        List<String> roles = authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .toList();
+
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+            .issuer(ISSUER)
+            .issuedAt(now)
+            .expiresAt(now.plus(ttl))
+            .subject(authentication.getName())
+            .claim(TokenConfig.ROLES_CLAIM, roles)
+            .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+}
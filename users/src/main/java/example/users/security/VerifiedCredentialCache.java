@@ -0,0 +1,107 @@
+package example.users.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Bounded, TTL-evicting cache of credentials that already passed a full password encoder check.
+ * Entries hold an HMAC of (username, raw password, encoded password) under a per-process random key,
+ * so the raw password is never stored and a password change in the user store misses automatically.
+ */
+public class VerifiedCredentialCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, byte[]> verified;
+
+    private final SecretKey key;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public VerifiedCredentialCache(long maximumSize, Duration ttl) {
+        this.verified = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+    }
+
+    /**
+     * Checks whether the given credentials were verified recently against the same encoded password.
+     *
+     * @param username the username presented by the client
+     * @param rawPassword the password presented by the client
+     * @param encodedPassword the encoded password currently held by the user store
+     * @return true if the credentials can be accepted without running the password encoder
+     */
+    public boolean isVerified(String username, CharSequence rawPassword, String encodedPassword) {
+        byte[] expected = verified.getIfPresent(username);
+        if (expected != null && MessageDigest.isEqual(expected, digest(username, rawPassword, encodedPassword))) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    public void put(String username, CharSequence rawPassword, String encodedPassword) {
+        verified.put(username, digest(username, rawPassword, encodedPassword));
+    }
+
+    public void invalidate(String username) {
+        verified.invalidate(username);
+    }
+
+    public void invalidateAll() {
+        verified.invalidateAll();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return verified.stats().evictionCount();
+    }
+
+    public long size() {
+        return verified.estimatedSize();
+    }
+
+    private byte[] digest(String username, CharSequence rawPassword, String encodedPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            if (encodedPassword != null) {
+                mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            }
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to compute credential digest", e);
+        }
+    }
+}
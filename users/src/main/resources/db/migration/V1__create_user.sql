@@ -0,0 +1,17 @@
+-- Initial schema; matches schema.sql, which creates the in-memory database when Flyway is off
+CREATE TABLE "USER" (
+  ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  NAME VARCHAR(20) NOT NULL,
+  LAST_NAME VARCHAR(20) NOT NULL,
+  EMAIL VARCHAR(50) NOT NULL,
+  BIRTHDAY DATE NOT NULL,
+  PHONE_NUMBER VARCHAR(15),
+  ADDRESS VARCHAR(50),
+  OWNER VARCHAR(256) NOT NULL,
+  VERSION BIGINT DEFAULT 0 NOT NULL
+);
+
+-- Every repository query is scoped by OWNER; these back the owner-scoped access paths.
+CREATE INDEX USER_OWNER_NAME_IDX ON "USER" (OWNER, NAME);
+CREATE INDEX USER_OWNER_BIRTHDAY_IDX ON "USER" (OWNER, BIRTHDAY);
+CREATE INDEX USER_OWNER_ID_IDX ON "USER" (OWNER, ID);
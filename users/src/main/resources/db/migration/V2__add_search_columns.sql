@@ -0,0 +1,8 @@
+-- Lowercased copies of the searchable columns, kept up to date by H2, for GET /users/search.
+ALTER TABLE "USER" ADD COLUMN NAME_LC VARCHAR(20) GENERATED ALWAYS AS (LOWER(NAME));
+ALTER TABLE "USER" ADD COLUMN LAST_NAME_LC VARCHAR(20) GENERATED ALWAYS AS (LOWER(LAST_NAME));
+ALTER TABLE "USER" ADD COLUMN EMAIL_LC VARCHAR(50) GENERATED ALWAYS AS (LOWER(EMAIL));
+
+CREATE INDEX USER_OWNER_NAME_LC_IDX ON "USER" (OWNER, NAME_LC);
+CREATE INDEX USER_OWNER_LAST_NAME_LC_IDX ON "USER" (OWNER, LAST_NAME_LC);
+CREATE INDEX USER_OWNER_EMAIL_LC_IDX ON "USER" (OWNER, EMAIL_LC);
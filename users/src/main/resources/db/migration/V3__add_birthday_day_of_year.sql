@@ -0,0 +1,4 @@
+-- The birthday as month * 100 + day, kept up to date by H2, for GET /users/birthdays.
+ALTER TABLE "USER" ADD COLUMN BIRTHDAY_DOY INT GENERATED ALWAYS AS (EXTRACT(MONTH FROM BIRTHDAY) * 100 + EXTRACT(DAY FROM BIRTHDAY));
+
+CREATE INDEX USER_OWNER_BIRTHDAY_DOY_IDX ON "USER" (OWNER, BIRTHDAY_DOY);
@@ -0,0 +1,5 @@
+-- Sharding: an owner whose users were copied to this shard by a move that has not deleted them from the source yet.
+CREATE TABLE SHARD_MOVE (
+  OWNER VARCHAR(256) PRIMARY KEY,
+  SOURCE_SHARD INT NOT NULL
+);
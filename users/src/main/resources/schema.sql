@@ -1,10 +0,0 @@
-CREATE TABLE "USER" (
-  ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-  NAME VARCHAR(20) NOT NULL,
-  LAST_NAME VARCHAR(20) NOT NULL,
-  EMAIL VARCHAR(50) NOT NULL,
-  BIRTHDAY DATE NOT NULL,
-  PHONE_NUMBER VARCHAR(15),
-  ADDRESS VARCHAR(50),
-  OWNER VARCHAR(256) NOT NULL
-);
\ No newline at end of file
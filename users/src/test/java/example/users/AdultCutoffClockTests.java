@@ -0,0 +1,76 @@
+package example.users;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import example.users.validation.AdultCutoff;
+import example.users.validation.AgeHelper;
+
+class AdultCutoffClockTests {
+
+	private final MutableClock clock = new MutableClock(Instant.parse("2024-11-20T23:59:59.999Z"), ZoneOffset.UTC);
+
+	private final AdultCutoff adultCutoff = new AdultCutoff(new AgeHelper() {
+		@Override
+		public int getAge() {
+			return 18;
+		}
+	}, clock);
+
+	@Test
+	void shouldMoveTheCutoffForwardAtMidnight(){
+		assertThat(adultCutoff.latestBirthday()).isEqualTo(LocalDate.parse("2006-11-20"));
+
+		clock.set(Instant.parse("2024-11-21T00:00:00Z"));
+		assertThat(adultCutoff.latestBirthday()).isEqualTo(LocalDate.parse("2006-11-21"));
+		assertThat(adultCutoff.isAdult(LocalDate.parse("2006-11-21"))).isTrue();
+	}
+
+	@Test
+	void shouldMoveTheCutoffBackWhenTheClockStepsBackOverMidnight(){
+		clock.set(Instant.parse("2024-11-21T00:00:00Z"));
+		assertThat(adultCutoff.latestBirthday()).isEqualTo(LocalDate.parse("2006-11-21"));
+
+		clock.set(Instant.parse("2024-11-20T23:59:59.999Z"));
+		assertThat(adultCutoff.latestBirthday()).isEqualTo(LocalDate.parse("2006-11-20"));
+		assertThat(adultCutoff.isAdult(LocalDate.parse("2006-11-21"))).isFalse();
+	}
+
+	static class MutableClock extends Clock {
+
+		private volatile Instant instant;
+
+		private final ZoneId zone;
+
+		MutableClock(Instant instant, ZoneId zone) {
+			this.instant = instant;
+			this.zone = zone;
+		}
+
+		void set(Instant instant) {
+			this.instant = instant;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return zone;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return new MutableClock(instant, zone);
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
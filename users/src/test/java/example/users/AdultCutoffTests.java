@@ -0,0 +1,63 @@
+package example.users;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import example.users.validation.AdultCutoff;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AdultCutoffTests {
+	@Autowired
+	TestRestTemplate restTemplate;
+
+	@Autowired
+	AdultCutoff adultCutoff;
+
+	@TestConfiguration
+	static class FixedClock {
+		@Bean
+		@Primary
+		Clock fixedClock() {
+			return Clock.fixed(Instant.parse("2024-11-20T12:00:00Z"), ZoneOffset.UTC);
+		}
+	}
+
+	@Test
+	void shouldComputeTheCutoffFromTheClock(){
+		assertThat(adultCutoff.latestBirthday()).isEqualTo(LocalDate.parse("2006-11-20"));
+	}
+
+	@Test
+	void shouldOnlyAcceptUsersBornOnOrBeforeTheCutoff(){
+		List<User> newUsers = List.of(
+			new User(null, "anna", "lee", "anna.lee@email.com", LocalDate.parse("2006-11-20"), "123456789", "1 First St", null),
+			new User(null, "tom", "young", "tom.young@email.com", LocalDate.parse("2006-11-21"), "123456789", "2 Second St", null)
+		);
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.postForEntity("/users/batch", newUsers, String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		DocumentContext json = JsonPath.parse(response.getBody());
+		assertThat(json.read("$[0].status", Integer.class)).isEqualTo(201);
+		assertThat(json.read("$[1].status", Integer.class)).isEqualTo(400);
+		assertThat(json.read("$[1].errors.birthday", String.class)).isEqualTo("Must be at least 18 years old");
+	}
+}
@@ -0,0 +1,133 @@
+package example.users;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+/**
+ * Runs each derived query of {@link UserRepository} and checks the SQL Spring Data JDBC actually sends, which
+ * {@link QueryPlanCheck} can only approximate with the SQL it writes out for them.
+ */
+@SpringBootTest(properties = "user.cache.enabled=false")
+class DerivedQueryPlanTests {
+
+	private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@TestConfiguration
+	static class RecordingDataSource {
+		@Bean
+		static BeanPostProcessor recordStatements() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (!beanName.equals("dataSource") || !(bean instanceof DataSource dataSource)) {
+						return bean;
+					}
+					return new DelegatingDataSource(dataSource) {
+						@Override
+						public Connection getConnection() throws SQLException {
+							return recording(super.getConnection());
+						}
+					};
+				}
+			};
+		}
+
+		private static Connection recording(Connection connection) {
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+				if (method.getName().startsWith("prepare") && args != null && args[0] instanceof String sql) {
+					statements.add(sql);
+				}
+				try {
+					return method.invoke(connection, args);
+				} catch (InvocationTargetException e) {
+					throw e.getTargetException();
+				}
+			});
+		}
+	}
+
+	@Test
+	void shouldListEveryDerivedQuery(){
+		assertThat(QueryPlanCheck.derivedQueryNames())
+			.containsExactlyInAnyOrderElementsOf(derivedMethods().stream().map(Method::getName).toList());
+	}
+
+	@Test
+	void shouldReadTheGeneratedSqlThroughTheSameIndexesAsTheCheckedSql() throws Exception {
+		for (Method method : derivedMethods()) {
+			statements.clear();
+			method.invoke(userRepository, sampleArguments(method));
+			assertThat(statements).as(method.getName()).isNotEmpty();
+
+			List<String> generated = new ArrayList<>();
+			for (String sql : statements) {
+				String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+				assertThat(QueryPlanCheck.fullScans(plan)).as("%s: %s", method.getName(), plan).isEmpty();
+				generated.addAll(QueryPlanCheck.indexesRead(plan));
+			}
+
+			List<String> checked = new ArrayList<>();
+			for (QueryPlanCheck.CheckedQuery query : QueryPlanCheck.checkedQueries()) {
+				if (query.name().equals(method.getName()) || query.name().startsWith(method.getName() + " (")) {
+					checked.addAll(QueryPlanCheck.indexesRead(
+						jdbcTemplate.queryForObject("EXPLAIN " + query.sql().replaceAll(":\\w+", "?"), String.class)));
+				}
+			}
+			assertThat(generated).as(method.getName()).containsExactlyInAnyOrderElementsOf(checked);
+		}
+	}
+
+	private static List<Method> derivedMethods() {
+		return Arrays.stream(UserRepository.class.getDeclaredMethods())
+			.filter(method -> !method.isAnnotationPresent(Query.class) && !method.isDefault() && !method.isSynthetic())
+			.toList();
+	}
+
+	private static Object[] sampleArguments(Method method) {
+		return Arrays.stream(method.getParameterTypes())
+			.map(type -> {
+				if (type == String.class) {
+					return "admin";
+				}
+				if (type == Long.class || type == long.class) {
+					return 99L;
+				}
+				if (Pageable.class.isAssignableFrom(type)) {
+					// One user per page, so a page of admin's users also runs its count query
+					return PageRequest.of(0, 1, Sort.by("name"));
+				}
+				throw new IllegalStateException("No sample value of " + type.getSimpleName() + " for " + method.getName());
+			})
+			.toArray();
+	}
+}
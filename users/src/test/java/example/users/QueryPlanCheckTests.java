@@ -0,0 +1,47 @@
+package example.users;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jdbc.repository.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+class QueryPlanCheckTests {
+
+	@Test
+	void shouldCheckEveryRepositoryQueryWithItsOwnText(){
+		List<QueryPlanCheck.CheckedQuery> queries = QueryPlanCheck.checkedQueries();
+
+		Arrays.stream(UserRepository.class.getDeclaredMethods())
+			.filter(method -> method.isAnnotationPresent(Query.class))
+			.forEach(method -> assertThat(queries)
+				.anySatisfy(query -> {
+					assertThat(query.name()).isEqualTo(method.getName());
+					assertThat(query.sql()).isEqualTo(method.getAnnotation(Query.class).value());
+				}));
+		assertThat(queries).extracting(QueryPlanCheck.CheckedQuery::sql)
+			.contains(UserJdbcRepositoryImpl.STREAM_BY_OWNER, UserJdbcRepositoryImpl.STREAM_BY_OWNER_AND_BETWEEN_DATES);
+	}
+
+	@Test
+	void shouldReportTableScansAndIndexesReadWithoutACondition(){
+		assertThat(QueryPlanCheck.fullScans("SELECT \"ID\" FROM \"PUBLIC\".\"USER\" /* PUBLIC.\"USER\".tableScan */"))
+			.containsExactly("PUBLIC.\"USER\".tableScan");
+		assertThat(QueryPlanCheck.fullScans("SELECT \"NAME\" FROM \"PUBLIC\".\"USER\" /* PUBLIC.PRIMARY_KEY_2 */ WHERE \"OWNER\" = ?1"))
+			.containsExactly("PUBLIC.PRIMARY_KEY_2");
+	}
+
+	@Test
+	void shouldAcceptIndexLookupsIncludingNestedOnes(){
+		assertThat(QueryPlanCheck.fullScans(
+			"SELECT \"NAME\" FROM \"PUBLIC\".\"USER\" /* PUBLIC.USER_OWNER_NAME_IDX: OWNER = ?1 */ ORDER BY 1 /* index sorted */"))
+			.isEmpty();
+		assertThat(QueryPlanCheck.fullScans("""
+			SELECT "ID" FROM "PUBLIC"."USER" /* PUBLIC.USER_OWNER_ID_IDX: OWNER = ?1
+			    AND ID IN(SELECT "ID" FROM "PUBLIC"."USER" /* PUBLIC.USER_OWNER_NAME_LC_IDX: OWNER = ?2
+			    AND NAME_LC >= ?3 */ WHERE TRUE) */ WHERE TRUE"""))
+			.isEmpty();
+	}
+}
@@ -0,0 +1,56 @@
+package example.users;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import javax.sql.DataSource;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+	"user.datasource.replica.enabled=true",
+	"user.cache.enabled=false"
+})
+class ReplicaRoutingTests {
+	@Autowired
+	TestRestTemplate restTemplate;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	DataSource replica;
+
+	@Test
+	void shouldReadFromTheReplicaUntilThePrincipalWrites() {
+		// The local replica is not replicated to, so a change made only there shows which database served a read
+		new JdbcTemplate(replica).update("UPDATE \"USER\" SET NAME = 'replica' WHERE ID = 99");
+
+		assertThat(nameOfUser99()).isEqualTo("replica");
+
+		User userUpdate = new User(null, "primary", "doe", "john.doe@email.com", LocalDate.parse("2000-12-01"), "123456789", "1234 Main St", null);
+		ResponseEntity<Void> updateResponse = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.exchange("/users/99", HttpMethod.PUT, new HttpEntity<>(userUpdate), Void.class);
+		assertThat(updateResponse.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+		assertThat(nameOfUser99()).isEqualTo("primary");
+	}
+
+	private String nameOfUser99() {
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/99", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		return JsonPath.parse(response.getBody()).read("$.name", String.class);
+	}
+}
@@ -0,0 +1,106 @@
+package example.users;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.time.LocalDate;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+	"user.sharding.enabled=true",
+	"user.sharding.count=3",
+	"user.cache.enabled=false",
+	"management.endpoints.web.exposure.include=health,shards"
+})
+class ShardingTests {
+	@Autowired
+	TestRestTemplate restTemplate;
+
+	@Test
+	void shouldServeDisplacedOwnersAndMoveThemToTheirShard() throws InterruptedException {
+		// The data scripts only fill shard 0; with three shards, paris belongs on shard 2 and admin on shard 0
+		DocumentContext before = shards();
+		assertThat(before.read("$.displacedOwners", Integer.class)).isEqualTo(1);
+		assertThat(nameOfUser105()).isEqualTo("helen");
+
+		ResponseEntity<String> rebalance = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.postForEntity("/actuator/shards", null, String.class);
+		assertThat(rebalance.getStatusCode()).isEqualTo(HttpStatus.OK);
+		// The run goes on in the background; the response only reports that it started
+		assertThat(JsonPath.parse(rebalance.getBody()).read("$.startedAt", String.class)).isNotNull();
+
+		DocumentContext after = shardsOnceRebalanced();
+		assertThat(after.read("$.rebalance.state", String.class)).isEqualTo("completed");
+		assertThat(after.read("$.rebalance.result.owners", Integer.class)).isEqualTo(1);
+		assertThat(after.read("$.rebalance.result.users", Integer.class)).isEqualTo(1);
+		assertThat(after.read("$.displacedOwners", Integer.class)).isZero();
+		assertThat(after.read("$.shards[1].users", Integer.class)).isZero();
+		assertThat(after.read("$.shards[2].users", Integer.class)).isEqualTo(1);
+		assertThat(nameOfUser105()).isEqualTo("helen");
+	}
+
+	@Test
+	void shouldOnlyLetOperatorsRebalance() {
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("paris", "abc123")
+			.postForEntity("/actuator/shards", null, String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+	}
+
+	@Test
+	void shouldGenerateIdsUniqueAcrossShards() {
+		User newUser = new User(null, "john", "doe", "john.doe@email.com", LocalDate.parse("2000-12-01"), "123456789", "1234 Main St", null);
+		ResponseEntity<Void> createResponse = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.postForEntity("/users", newUser, Void.class);
+		assertThat(createResponse.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+		URI location = createResponse.getHeaders().getLocation();
+		long id = Long.parseLong(location.getPath().substring(location.getPath().lastIndexOf('/') + 1));
+		// A generated ID, not the next identity value after the seeded rows
+		assertThat(id).isGreaterThan(1L << 12);
+		// Within Number.MAX_SAFE_INTEGER, so JavaScript clients read it exactly
+		assertThat(id).isLessThanOrEqualTo((1L << 53) - 1);
+
+		ResponseEntity<String> getResponse = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity(location, String.class);
+		assertThat(getResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+	}
+
+	private DocumentContext shards() {
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/actuator/shards", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		return JsonPath.parse(response.getBody());
+	}
+
+	private DocumentContext shardsOnceRebalanced() throws InterruptedException {
+		for (int attempt = 0; attempt < 100; attempt++) {
+			DocumentContext shards = shards();
+			if (!"running".equals(shards.read("$.rebalance.state", String.class))) {
+				return shards;
+			}
+			Thread.sleep(100);
+		}
+		throw new AssertionError("The rebalancing run did not finish within 10 seconds");
+	}
+
+	private String nameOfUser105() {
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("paris", "abc123")
+			.getForEntity("/users/105", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		return JsonPath.parse(response.getBody()).read("$.name", String.class);
+	}
+}
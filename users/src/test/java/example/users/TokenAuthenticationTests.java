@@ -0,0 +1,79 @@
+package example.users;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "user.security.auth-mode=token")
+class TokenAuthenticationTests {
+	@Autowired
+	TestRestTemplate restTemplate;
+
+	@Test
+	void shouldReturnUserWhenUsingAToken() {
+		String token = tokenFor("admin", "abc123");
+
+		ResponseEntity<String> response = getWithToken("/users/99", token);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		DocumentContext json = JsonPath.parse(response.getBody());
+		assertThat(json.read("$.id", Long.class)).isEqualTo(99);
+		assertThat(json.read("$.owner", String.class)).isEqualTo("admin");
+	}
+
+	@Test
+	void shouldNotIssueTokenForBadCredentials() {
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "bad-password")
+			.postForEntity("/auth/token", null, String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+	}
+
+	@Test
+	void shouldNotAcceptBasicCredentialsOnUsersEndpoints() {
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/99", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+	}
+
+	@Test
+	void shouldNotAcceptATamperedToken() {
+		String token = tokenFor("admin", "abc123");
+
+		ResponseEntity<String> response = getWithToken("/users/99", token.substring(0, token.length() - 2) + "xx");
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+	}
+
+	@Test
+	void shouldReturnForbiddenWhenTokenOwnerIsNotAuthorized() {
+		String token = tokenFor("dario", "abc123");
+
+		ResponseEntity<String> response = getWithToken("/users/99", token);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+	}
+
+	private String tokenFor(String username, String password) {
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth(username, password)
+			.postForEntity("/auth/token", null, String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		return JsonPath.parse(response.getBody()).read("$.token", String.class);
+	}
+
+	private ResponseEntity<String> getWithToken(String url, String token) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setBearerAuth(token);
+		return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+	}
+}
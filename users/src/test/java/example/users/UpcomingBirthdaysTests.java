@@ -0,0 +1,111 @@
+package example.users;
+
+import net.minidev.json.JSONArray;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class UpcomingBirthdaysTests {
+	@Autowired
+	TestRestTemplate restTemplate;
+
+	@TestConfiguration
+	static class FixedClock {
+		@Bean
+		@Primary
+		Clock fixedClock() {
+			return Clock.fixed(Instant.parse("2024-11-20T12:00:00Z"), ZoneOffset.UTC);
+		}
+	}
+
+	@Test
+	void shouldReturnBirthdaysAcrossTheEndOfTheYear(){
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/birthdays?days=130", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		// john on 1 December, then sarah on 25 March of next year
+		JSONArray ids = JsonPath.parse(response.getBody()).read("$..id");
+		assertThat(ids).containsExactly(99, 102);
+	}
+
+	@Test
+	void shouldPageThroughBirthdaysWithACursor(){
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/birthdays?days=130&limit=1", String.class);
+		JSONArray ids = JsonPath.parse(response.getBody()).read("$..id");
+		assertThat(ids).containsExactly(99);
+
+		String cursor = response.getHeaders().getFirst("X-Next-Cursor");
+		assertThat(cursor).isNotNull();
+
+		response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/birthdays?days=130&limit=1&cursor=" + cursor, String.class);
+		ids = JsonPath.parse(response.getBody()).read("$..id");
+		assertThat(ids).containsExactly(102);
+		assertThat(response.getHeaders().containsKey("X-Next-Cursor")).isFalse();
+	}
+
+	@Test
+	@DirtiesContext
+	void shouldReturnLeapDayBirthdaysOnTheFirstOfMarchOfOtherYears(){
+		User leapling = new User(null, "leap", "day", "leap.day@email.com", LocalDate.parse("2000-02-29"), "admin");
+		String location = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.postForEntity("/users", leapling, Void.class)
+			.getHeaders().getLocation().getPath();
+		int id = Integer.parseInt(location.substring(location.lastIndexOf('/') + 1));
+
+		// 2025 has no 29 February: up to 28 February leaves it out, up to 1 March includes it
+		JSONArray ids = JsonPath.parse(restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/birthdays?days=101", String.class).getBody()).read("$..id");
+		assertThat(ids).doesNotContain(id);
+		ids = JsonPath.parse(restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/birthdays?days=102", String.class).getBody()).read("$..id");
+		assertThat(ids).contains(id);
+
+		// A window starting on 1 March of such a year starts with it
+		assertThat(BirthdayWindow.of(LocalDate.parse("2025-03-01"), 7).firstStart()).isEqualTo(229);
+		assertThat(BirthdayWindow.of(LocalDate.parse("2024-03-01"), 7).firstStart()).isEqualTo(301);
+		BirthdayWindow wholeYear = BirthdayWindow.of(LocalDate.parse("2025-03-01"), BirthdayWindow.MAX_DAYS);
+		assertThat(wholeYear.secondEnd()).isEqualTo(228);
+	}
+
+	@Test
+	void shouldReturnAnEmptyListWhenNoBirthdayComesUp(){
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/birthdays?days=10", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(JsonPath.parse(response.getBody()).read("$.length()", Integer.class)).isZero();
+	}
+
+	@Test
+	void shouldReturnBadRequestWhenDaysIsOutOfRange(){
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/birthdays?days=400", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+}
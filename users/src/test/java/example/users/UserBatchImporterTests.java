@@ -0,0 +1,44 @@
+package example.users;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import example.users.metrics.TimedValidator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+class UserBatchImporterTests {
+
+	@Test
+	void shouldOnlyFailTheRowsTheDatabaseRejects(){
+		AtomicLong nextId = new AtomicLong(1000);
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.insertBatch(anyList())).thenAnswer(invocation -> {
+			List<User> users = invocation.getArgument(0);
+			if (users.stream().anyMatch(user -> user.getName().equals("rejected"))) {
+				throw new DataIntegrityViolationException("Value too long for column \"NAME\": INSERT INTO \"USER\" ...");
+			}
+			return users.stream().map(user -> nextId.getAndIncrement()).toList();
+		});
+		UserBatchImporter importer = new UserBatchImporter(userRepository, mock(TimedValidator.class), mock(PlatformTransactionManager.class), 3);
+
+		UserBatchImporter.Batch batch = importer.start("admin");
+		batch.add(new User(null, "anna", "lee", "anna.lee@email.com", LocalDate.parse("1990-02-01"), "admin"));
+		batch.add(new User(null, "rejected", "lee", "rejected@email.com", LocalDate.parse("1990-02-01"), "admin"));
+		batch.add(new User(null, "mark", "fox", "mark.fox@email.com", LocalDate.parse("1985-06-11"), "admin"));
+		List<BatchItemResult> results = batch.finish();
+
+		assertThat(results).extracting(BatchItemResult::status).containsExactly(201, 500, 201);
+		assertThat(results.get(0).id()).isNotNull();
+		assertThat(results.get(2).id()).isNotNull();
+		assertThat(results.get(1).errors().get("message")).isEqualTo("The user could not be created").doesNotContain("INSERT");
+	}
+}
@@ -0,0 +1,68 @@
+package example.users;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JsonTest
+public class UserCborTest {
+    @Autowired
+    private ObjectMapper json;
+
+    @Autowired
+    private Jackson2ObjectMapperBuilder builder;
+
+    private ObjectMapper cbor;
+
+    private User[] users;
+
+    @BeforeEach
+    void setUp(){
+        cbor = builder.factory(new CBORFactory()).build();
+        users = new User[] {
+            new User(99L, "john", "doe", "john.doe@email.com", LocalDate.parse("2000-12-01"), "123456789", "1234 Main St", "admin"),
+            new User(100L, "jane", "smith", "jane.smith@email.com", LocalDate.parse("1995-05-10"), "987654321", "456 Elm St", "admin"),
+            new User(101L, "alex", "brown", "alex.brown@email.com", LocalDate.parse("1988-09-15"), "555555555", "789 Oak St", "admin")
+        };
+    }
+
+    @Test
+    public void userRoundTripTest() throws IOException {
+        User user = users[0];
+        byte[] bytes = cbor.writeValueAsBytes(user);
+
+        assertThat(cbor.readValue(bytes, User.class)).isEqualTo(user);
+        assertThat(bytes.length).isLessThan(json.writeValueAsBytes(user).length);
+    }
+
+    @Test
+    public void userWithoutOptionalFieldsRoundTripTest() throws IOException {
+        User user = new User(null, "mark", "fox", "mark.fox@email.com", LocalDate.parse("1985-06-11"), null, null, null);
+
+        assertThat(cbor.readValue(cbor.writeValueAsBytes(user), User.class)).isEqualTo(user);
+    }
+
+    @Test
+    public void userListRoundTripTest() throws IOException {
+        byte[] bytes = cbor.writeValueAsBytes(users);
+
+        assertThat(cbor.readValue(bytes, User[].class)).isEqualTo(users);
+        assertThat(bytes.length).isLessThan(json.writeValueAsBytes(users).length);
+    }
+
+    @Test
+    public void userCborMatchesUserJsonTest() throws IOException {
+        // The same tree in both formats, so CBOR clients see the same fields and date format as JSON ones
+        assertThat(cbor.readTree(cbor.writeValueAsBytes(users))).isEqualTo(json.readTree(json.writeValueAsBytes(users)));
+    }
+}
@@ -6,6 +6,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.json.JsonTest;
 import org.springframework.boot.test.json.JacksonTester;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
 import java.io.IOException;
 import java.time.LocalDate;
 
@@ -69,6 +74,17 @@ public class UserJsonTest {
         
     }
 
+    @Test
+    public void userSerializationMatchesJacksonBeanSerializationTest() throws IOException {
+        User user = new User(null, "mark", "fox", "mark.fox@email.com", LocalDate.parse("1985-06-11"), null, null, null);
+        ObjectMapper beanMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+        assertThat(this.json.write(user)).isStrictlyEqualToJson(beanMapper.writeValueAsString(user));
+    }
+
     @Test
     public void userListSerializationTest() throws IOException {
         // Assert against a `.json` file in the same package as the test
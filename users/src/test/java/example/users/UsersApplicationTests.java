@@ -1,26 +1,41 @@
 package example.users;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import net.minidev.json.JSONArray;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.HttpMethod;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.net.URI;
 import java.time.LocalDate;
+import java.util.List;
 
+// Exports metrics, which Spring Boot tests otherwise disable, so /actuator/prometheus exists
+@AutoConfigureObservability
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class UsersApplicationTests {
+	private static final ObjectMapper CBOR = CBORMapper.builder()
+		.addModule(new JavaTimeModule())
+		.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+		.build();
+
 	@Autowired
     TestRestTemplate restTemplate;
 
@@ -111,6 +126,122 @@ class UsersApplicationTests {
 		assertThat(json.read("$.owner", String.class)).isEqualTo("admin");
 	}
 
+	@Test
+	void shouldReturnUserAsCborWhenAccepted() throws Exception {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setAccept(List.of(MediaType.APPLICATION_CBOR));
+		ResponseEntity<byte[]> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.exchange("/users/99", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getContentType().isCompatibleWith(MediaType.APPLICATION_CBOR)).isTrue();
+		// JSON and CBOR share the weak ETag of the version, and caches keep them apart by Accept
+		assertThat(response.getHeaders().getETag()).isEqualTo("W/\"0\"");
+		assertThat(response.getHeaders().getVary()).contains(HttpHeaders.ACCEPT);
+
+		User user = CBOR.readValue(response.getBody(), User.class);
+		assertThat(user).isEqualTo(new User(99L, "john", "doe", "john.doe@email.com", LocalDate.parse("2000-12-01"), "123456789", "1234 Main St", "admin"));
+	}
+
+	@Test
+	@DirtiesContext
+	void shouldCreateANewUserFromCbor() throws Exception {
+		User user = new User(null, "john", "doe", "john.c@email.com", LocalDate.parse("2001-12-01"), "123456789", "1234 Main St", null);
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_CBOR);
+		byte[] body = CBOR.writeValueAsBytes(user);
+		ResponseEntity<Void> createResponse = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.exchange("/users", HttpMethod.POST, new HttpEntity<>(body, headers), Void.class);
+		assertThat(createResponse.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity(createResponse.getHeaders().getLocation(), String.class);
+		DocumentContext json = JsonPath.parse(response.getBody());
+		assertThat(json.read("$.email", String.class)).isEqualTo("john.c@email.com");
+		assertThat(json.read("$.birthday", String.class)).isEqualTo("2001-12-01");
+	}
+
+	@Test
+	@DirtiesContext
+	void shouldCreateValidUsersOfABatch() {
+		User[] users = {
+			new User(null, "anna", "lee", "anna.lee@email.com", LocalDate.parse("1990-02-01"), "123456789", "1 First St", null),
+			new User(null, "tom", "young", "tom.young@email.com", LocalDate.parse("2020-02-01"), "123456789", "2 Second St", null),
+			new User(null, "mark", "fox", "mark.fox@email.com", LocalDate.parse("1985-06-11"), null, null, null)
+		};
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.postForEntity("/users/batch", users, String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		DocumentContext json = JsonPath.parse(response.getBody());
+		JSONArray statuses = json.read("$..status");
+		assertThat(statuses).containsExactly(201, 400, 201);
+		assertThat(json.read("$[1].errors.birthday", String.class)).isEqualTo("Must be at least 18 years old");
+
+		Long createdId = json.read("$[2].id", Long.class);
+		ResponseEntity<String> created = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/" + createdId, String.class);
+		assertThat(created.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(JsonPath.parse(created.getBody()).read("$.owner", String.class)).isEqualTo("admin");
+	}
+
+	@Test
+	@DirtiesContext
+	void shouldCreateUsersFromNewlineDelimitedJson() {
+		String body = """
+			{"name":"anna","lastName":"lee","email":"anna.lee@email.com","birthday":"1990-02-01"}
+			not json
+			{"name":"mark","lastName":"fox","email":"mark.fox@email.com","birthday":"1985-06-11"}
+			""";
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.parseMediaType("application/x-ndjson"));
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.postForEntity("/users/batch", new HttpEntity<>(body, headers), String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		JSONArray statuses = JsonPath.parse(response.getBody()).read("$..status");
+		assertThat(statuses).containsExactly(201, 400, 201);
+	}
+
+	@Test
+	@DirtiesContext
+	void shouldOnlyRejectTheElementsOfABatchThatCannotBeRead() {
+		String body = """
+			[
+				{"name":"anna","lastName":"lee","email":"anna.lee@email.com","birthday":"1990-02-01"},
+				{"name":"tom","lastName":"young","email":"tom.young@email.com","birthday":"not a date"},
+				{"name":"maximilian-alexanders","lastName":"fox","email":"max.fox@email.com","birthday":"1985-06-11"},
+				{"name":"mark","lastName":"fox","email":"mark.fox@email.com","birthday":"1985-06-11"}
+			]
+			""";
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.postForEntity("/users/batch", new HttpEntity<>(body, headers), String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		DocumentContext json = JsonPath.parse(response.getBody());
+		JSONArray statuses = json.read("$..status");
+		assertThat(statuses).containsExactly(201, 400, 400, 201);
+		assertThat(json.read("$[2].errors.name", String.class)).isEqualTo("Name cannot be longer than 20 characters");
+	}
+
+	@Test
+	void shouldReturnBadRequestForABatchThatIsNotAnArray() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.postForEntity("/users/batch", new HttpEntity<>("{\"name\":\"anna\"}", headers), String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
 	@Test 
 	void shouldReturnAPageofUsers(){
 		ResponseEntity<String> response = restTemplate
@@ -161,6 +292,110 @@ class UsersApplicationTests {
 		assertThat(json.read("$[1].name", String.class)).isEqualTo("emily");
 	}
 
+	@Test
+	void shouldReturnTotalCountUnlessItIsSkipped(){
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users?page=0&size=2", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getFirst("X-Total-Count")).isEqualTo("6");
+
+		response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users?page=0&size=2&count=false", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().containsKey("X-Total-Count")).isFalse();
+		assertThat(JsonPath.parse(response.getBody()).read("$.length()", Integer.class)).isEqualTo(2);
+	}
+
+	@Test
+	void shouldWalkAllUsersWithACursor(){
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users?limit=4", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		DocumentContext json = JsonPath.parse(response.getBody());
+		JSONArray names = json.read("$..name");
+		assertThat(names).containsExactly("alex", "emily", "jane", "john");
+
+		String cursor = response.getHeaders().getFirst("X-Next-Cursor");
+		assertThat(cursor).isNotNull();
+
+		response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users?limit=4&cursor=" + cursor, String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		json = JsonPath.parse(response.getBody());
+		names = json.read("$..name");
+		assertThat(names).containsExactly("michael", "sarah");
+		assertThat(response.getHeaders().containsKey("X-Next-Cursor")).isFalse();
+	}
+
+	@Test
+	void shouldReturnBadRequestForAnInvalidCursor(){
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users?limit=4&cursor=not-a-cursor", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@Test
+	void shouldSearchUsersByPrefixIgnoringCaseAndRankExactMatchesFirst(){
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/search?q=JOHN", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		// john doe by name, sarah johnson by last name; paris's users are never searched
+		JSONArray ids = JsonPath.parse(response.getBody()).read("$..id");
+		assertThat(ids).containsExactly(99, 102);
+
+		response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/search?q=john&size=1&page=1", String.class);
+		ids = JsonPath.parse(response.getBody()).read("$..id");
+		assertThat(ids).containsExactly(102);
+	}
+
+	@Test
+	void shouldReturnBadRequestForABlankSearch(){
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/search?q= ", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@Test
+	void shouldReturnBadRequestForASearchPageTooLargeOrTooDeep(){
+		for (String page : new String[] { "size=1001", "size=1000&page=10", "size=1&page=10000" }) {
+			ResponseEntity<String> response = restTemplate
+				.withBasicAuth("admin", "abc123")
+				.getForEntity("/users/search?q=john&" + page, String.class);
+			assertThat(response.getStatusCode()).as(page).isEqualTo(HttpStatus.BAD_REQUEST);
+		}
+		assertThat(restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/search?q=john&size=1000&page=9", String.class)
+			.getStatusCode()).isEqualTo(HttpStatus.OK);
+	}
+
+	@Test
+	void shouldExportAllUsersAsNewlineDelimitedJson(){
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/export", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getContentType().toString()).startsWith("application/x-ndjson");
+
+		String[] lines = response.getBody().split("\n");
+		assertThat(lines).hasSize(6);
+		assertThat(JsonPath.parse(lines[0]).read("$.id", Long.class)).isEqualTo(99);
+		assertThat(JsonPath.parse(lines[5]).read("$.id", Long.class)).isEqualTo(104);
+		assertThat(JsonPath.parse(lines[5]).read("$.owner", String.class)).isEqualTo("admin");
+	}
+
 	@Test
 	void ShoudNotReturnUserWhenUsingBadCredentials(){
 		ResponseEntity<String> response = restTemplate
@@ -174,6 +409,24 @@ class UsersApplicationTests {
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
 	}
 
+	@Test
+	void shouldNotReturnUserWithBadPasswordAfterASuccessfulLogin(){
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/99", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		response = restTemplate
+			.withBasicAuth("admin", "abc124")
+			.getForEntity("/users/99", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+
+		response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/99", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+	}
+
 	@Test
 	void shouldReturnForbiddenWhenUserIsNotAuthorized(){
 		ResponseEntity<String> response = restTemplate
@@ -217,6 +470,57 @@ class UsersApplicationTests {
 		assertThat(json.read("$.owner", String.class)).isEqualTo("admin");
 	}
 
+	@Test
+	@DirtiesContext
+	void shouldPatchOnlyTheSuppliedFields(){
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+		HttpEntity<String> patch = new HttpEntity<>("""
+			{"phoneNumber":"222222222","address":null}
+			""", headers);
+		ResponseEntity<Void> patchResponse = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.exchange("/users/99", HttpMethod.PATCH, patch, Void.class);
+		assertThat(patchResponse.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/99", String.class);
+		DocumentContext json = JsonPath.parse(response.getBody());
+		assertThat(json.read("$.name", String.class)).isEqualTo("john");
+		assertThat(json.read("$.birthday", String.class)).isEqualTo("2000-12-01");
+		assertThat(json.read("$.phoneNumber", String.class)).isEqualTo("222222222");
+		assertThat(json.read("$.address", String.class)).isNull();
+	}
+
+	@Test
+	void shouldNotPatchWithAnInvalidField(){
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+		HttpEntity<String> patch = new HttpEntity<>("""
+			{"email":"not-an-email","name":null}
+			""", headers);
+		ResponseEntity<String> patchResponse = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.exchange("/users/99", HttpMethod.PATCH, patch, String.class);
+		assertThat(patchResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+		DocumentContext json = JsonPath.parse(patchResponse.getBody());
+		assertThat(json.read("$.email", String.class)).isEqualTo("Email should be valid");
+		assertThat(json.read("$.name", String.class)).isNotNull();
+	}
+
+	@Test
+	void shouldNotPatchUserThatIsNotOwned(){
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+		HttpEntity<String> patch = new HttpEntity<>("{\"phoneNumber\":\"222222222\"}", headers);
+		ResponseEntity<Void> patchResponse = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.exchange("/users/105", HttpMethod.PATCH, patch, Void.class);
+		assertThat(patchResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
 	@Test
 	void shouldNotUpdateUserThatDoesNotExist(){
 		User unknownUser = new User(null, "john", "moe", "john.moe@email.com", LocalDate.parse("2001-12-01"), "123456789", "1234 Main St", null);
@@ -227,6 +531,23 @@ class UsersApplicationTests {
 		assertThat(updateResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
 	}
 
+	@Test
+	void shouldFailThePreconditionOfAnyVersionOfAUserThatDoesNotExist(){
+		User unknownUser = new User(null, "john", "moe", "john.moe@email.com", LocalDate.parse("2001-12-01"), "123456789", "1234 Main St", null);
+		HttpHeaders headers = new HttpHeaders();
+		headers.setIfMatch("*");
+		ResponseEntity<Void> updateResponse = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.exchange("/users/1000", HttpMethod.PUT, new HttpEntity<>(unknownUser, headers), Void.class);
+		assertThat(updateResponse.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+		headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+		ResponseEntity<Void> patchResponse = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.exchange("/users/1000", HttpMethod.PATCH, new HttpEntity<>("{\"phoneNumber\":\"222222222\"}", headers), Void.class);
+		assertThat(patchResponse.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+	}
+
 	@Test
 	void shouldNotUpdateUserThatIsNotOwned(){
 		User dariosUser = new User(null, "helen", "troy", "helen.troy@email.com", LocalDate.parse("1997-07-20"), "444444444", "987 Birch St", null);
@@ -238,6 +559,77 @@ class UsersApplicationTests {
 		assertThat(updateResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
 	}
 
+	@Test
+	void shouldReturnNotModifiedWhenETagMatches(){
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/99", String.class);
+		String eTag = response.getHeaders().getETag();
+		assertThat(eTag).isEqualTo("W/\"0\"");
+		assertThat(response.getHeaders().getVary()).contains(HttpHeaders.ACCEPT);
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setIfNoneMatch(eTag);
+		ResponseEntity<String> conditionalResponse = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.exchange("/users/99", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+		assertThat(conditionalResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(conditionalResponse.getHeaders().getVary()).contains(HttpHeaders.ACCEPT);
+		assertThat(conditionalResponse.getBody()).isNull();
+	}
+
+	@Test
+	void shouldOnlyReturnNotModifiedForTheSamePage(){
+		ResponseEntity<String> firstPage = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users?page=0&size=2", String.class);
+		String eTag = firstPage.getHeaders().getETag();
+		assertThat(eTag).matches("W/\"[A-Za-z0-9_-]{22}\"");
+		assertThat(firstPage.getHeaders().getVary()).contains(HttpHeaders.ACCEPT);
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setIfNoneMatch(eTag);
+		ResponseEntity<String> samePage = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.exchange("/users?page=0&size=2", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+		assertThat(samePage.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+		ResponseEntity<String> secondPage = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.exchange("/users?page=1&size=2", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+		assertThat(secondPage.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(secondPage.getHeaders().getETag()).isNotEqualTo(eTag);
+	}
+
+	@Test
+	@DirtiesContext
+	void shouldOnlyUpdateUserWhenETagMatches(){
+		User userUpdate = new User(null, "john", "doe", "john.doe@email.com", LocalDate.parse("2001-12-01"), "123456789", "1234 Main St", null);
+		HttpHeaders headers = new HttpHeaders();
+		headers.setIfMatch("\"0\"");
+		ResponseEntity<Void> updateResponse = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.exchange("/users/99", HttpMethod.PUT, new HttpEntity<>(userUpdate, headers), Void.class);
+		assertThat(updateResponse.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+		ResponseEntity<Void> staleResponse = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.exchange("/users/99", HttpMethod.PUT, new HttpEntity<>(userUpdate, headers), Void.class);
+		assertThat(staleResponse.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/99", String.class);
+		assertThat(response.getHeaders().getETag()).isEqualTo("W/\"1\"");
+
+		// The weak ETag a client read is accepted as well
+		headers.setIfMatch(response.getHeaders().getETag());
+		ResponseEntity<Void> weakResponse = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.exchange("/users/99", HttpMethod.PUT, new HttpEntity<>(userUpdate, headers), Void.class);
+		assertThat(weakResponse.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+	}
+
 	@Test
 	@DirtiesContext
 	void shouldDeleteExistingUser(){
@@ -308,6 +700,49 @@ class UsersApplicationTests {
 		assertThat(ids).containsExactlyInAnyOrder(100, 102, 104);
 	}
 
+	@Test
+	void shouldPageThroughUsersBetweenDates(){
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/1990-01-01/2000-01-01?limit=2", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		JSONArray ids = JsonPath.parse(response.getBody()).read("$..id");
+		assertThat(ids).containsExactly(102, 100);
+
+		String cursor = response.getHeaders().getFirst("X-Next-Cursor");
+		assertThat(cursor).isNotNull();
+
+		response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/1990-01-01/2000-01-01?limit=2&cursor=" + cursor, String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		ids = JsonPath.parse(response.getBody()).read("$..id");
+		assertThat(ids).containsExactly(104);
+		assertThat(response.getHeaders().containsKey("X-Next-Cursor")).isFalse();
+	}
+
+	@Test
+	void shouldReturnBadRequestWhenLimitIsTooLarge(){
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/1990-01-01/2000-01-01?limit=100000", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@Test
+	void shouldStreamUsersBetweenDates(){
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/1990-01-01/2000-01-01?stream=true", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		String[] lines = response.getBody().split("\n");
+		assertThat(lines).hasSize(3);
+		assertThat(JsonPath.parse(lines[0]).read("$.id", Long.class)).isEqualTo(102);
+	}
+
 	@Test
 	void shouldReturnBAdRequestWhenDatesAreIllegal() {
 		ResponseEntity<String> response = restTemplate
@@ -316,4 +751,53 @@ class UsersApplicationTests {
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
 	}
 
+	@Test
+	void shouldExposeRequestPhaseTimersToPrometheus(){
+		restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/users/99", String.class);
+
+		ResponseEntity<String> response = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForEntity("/actuator/prometheus", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody())
+			.contains("spring_data_repository_invocations_seconds_bucket")
+			.contains("endpoint=\"GET /users/{requestedId}\"")
+			.contains("users_http_json_seconds_count")
+			.contains("users_auth_password_verification_seconds_count")
+			.contains("hikaricp_connections_acquire_seconds_bucket");
+	}
+
+	@Test
+	void shouldTimeTheValidationOfBatchesAndPatches(){
+		User[] minors = { new User(null, "tom", "young", "tom.young@email.com", LocalDate.parse("2020-02-01"), "123456789", "2 Second St", null) };
+		restTemplate
+			.withBasicAuth("admin", "abc123")
+			.postForEntity("/users/batch", minors, String.class);
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+		restTemplate
+			.withBasicAuth("admin", "abc123")
+			.exchange("/users/99", HttpMethod.PATCH, new HttpEntity<>("{\"email\":\"not-an-email\"}", headers), String.class);
+
+		String metrics = restTemplate
+			.withBasicAuth("admin", "abc123")
+			.getForObject("/actuator/prometheus", String.class);
+		assertThat(metrics.lines().filter(line -> line.startsWith("users_validation_seconds_count")))
+			.anyMatch(line -> line.contains("endpoint=\"POST /users/batch\"") && line.contains("outcome=\"invalid\""))
+			.anyMatch(line -> line.contains("endpoint=\"PATCH /users/{requestedId}\"") && line.contains("outcome=\"invalid\""));
+	}
+
+	@Test
+	void shouldOnlyExposeMetricsToOperators(){
+		for (String path : new String[] { "/actuator/metrics", "/actuator/prometheus" }) {
+			assertThat(restTemplate.withBasicAuth("dario", "abc123").getForEntity(path, String.class).getStatusCode())
+				.isEqualTo(HttpStatus.FORBIDDEN);
+			assertThat(restTemplate.withBasicAuth("paris", "abc123").getForEntity(path, String.class).getStatusCode())
+				.isEqualTo(HttpStatus.FORBIDDEN);
+		}
+		assertThat(restTemplate.getForEntity("/actuator/health", String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+	}
+
 }
@@ -0,0 +1,89 @@
+package example.users.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+class ShardRebalancerTests {
+
+	private static final String INSERT = "INSERT INTO \"USER\" (ID, NAME, LAST_NAME, EMAIL, BIRTHDAY, OWNER) VALUES (?, ?, 'lee', 'lee@email.com', DATE '1990-02-01', ?)";
+
+	private final List<EmbeddedDatabase> databases = IntStream.range(0, 2)
+		.mapToObj(shard -> new EmbeddedDatabaseBuilder()
+			.setType(EmbeddedDatabaseType.H2)
+			.generateUniqueName(true)
+			.addScript("schema.sql")
+			.build())
+		.toList();
+
+	@AfterEach
+	void shutdown() {
+		databases.forEach(EmbeddedDatabase::shutdown);
+	}
+
+	@Test
+	void shouldDiscardThePartialCopyOfAnInterruptedMove() throws InterruptedException {
+		ShardDirectory directory = new ShardDirectory(new ShardRing(2, 128));
+		String owner = ownerOfShard(directory, 1);
+		JdbcTemplate oldShard = new JdbcTemplate(databases.get(0));
+		JdbcTemplate newShard = new JdbcTemplate(databases.get(1));
+		oldShard.update(INSERT, 1L, "anna", owner);
+		oldShard.update(INSERT, 2L, "mark", owner);
+		oldShard.update(INSERT, 3L, "helen", owner);
+
+		// A move stopped after its first batch of two, then the owner, still served from shard 0, deleted mark
+		newShard.update(INSERT, 1L, "anna", owner);
+		newShard.update(INSERT, 2L, "mark", owner);
+		oldShard.update("DELETE FROM \"USER\" WHERE ID = 2");
+
+		ShardRebalancer rebalancer = new ShardRebalancer(List.copyOf(databases), directory, Duration.ofSeconds(1), 2);
+		rebalancer.locateOwners();
+		assertThat(directory.displaced()).containsEntry(owner, 0);
+		assertThat(newShard.queryForObject("SELECT COUNT(*) FROM \"USER\"", Integer.class)).isZero();
+
+		ShardRebalancer.Result result = rebalancer.rebalance();
+
+		assertThat(result.owners()).isEqualTo(1);
+		assertThat(result.users()).isEqualTo(2);
+		assertThat(newShard.queryForList("SELECT ID FROM \"USER\" WHERE OWNER = ? ORDER BY ID", Long.class, owner)).containsExactly(1L, 3L);
+		assertThat(oldShard.queryForObject("SELECT COUNT(*) FROM \"USER\"", Integer.class)).isZero();
+		assertThat(directory.shardOf(owner)).isEqualTo(1);
+	}
+
+	@Test
+	void shouldFinishAMoveWhoseCopyWasRecordedAsComplete() {
+		ShardDirectory directory = new ShardDirectory(new ShardRing(2, 128));
+		String owner = ownerOfShard(directory, 1);
+		JdbcTemplate oldShard = new JdbcTemplate(databases.get(0));
+		JdbcTemplate newShard = new JdbcTemplate(databases.get(1));
+
+		// A move stopped after recording its copy, before deleting the users from shard 0
+		for (JdbcTemplate shard : List.of(oldShard, newShard)) {
+			shard.update(INSERT, 1L, "anna", owner);
+			shard.update(INSERT, 2L, "mark", owner);
+		}
+		newShard.update("INSERT INTO SHARD_MOVE (OWNER, SOURCE_SHARD) VALUES (?, 0)", owner);
+
+		new ShardRebalancer(List.copyOf(databases), directory, Duration.ofSeconds(1), 2).locateOwners();
+
+		assertThat(directory.displaced()).isEmpty();
+		assertThat(oldShard.queryForObject("SELECT COUNT(*) FROM \"USER\"", Integer.class)).isZero();
+		assertThat(newShard.queryForList("SELECT ID FROM \"USER\" WHERE OWNER = ? ORDER BY ID", Long.class, owner)).containsExactly(1L, 2L);
+		assertThat(newShard.queryForObject("SELECT COUNT(*) FROM SHARD_MOVE", Integer.class)).isZero();
+	}
+
+	private static String ownerOfShard(ShardDirectory directory, int shard) {
+		return IntStream.range(0, 100).mapToObj(i -> "owner-" + i)
+			.filter(candidate -> directory.ring().shardOf(candidate) == shard)
+			.findFirst().orElseThrow();
+	}
+}